@@ -0,0 +1,90 @@
+package org.dbbeans.util.json.benchmarks;
+
+import org.dbbeans.util.json.JsonArrayOfObjectsElement;
+import org.dbbeans.util.json.JsonFormat;
+import org.dbbeans.util.json.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures the cost of printing large arrays of objects and integers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonArrayPrintBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int size;
+
+    private JsonObject objects;
+    private JsonObject parallelObjects;
+    private ExecutorService executor;
+    private JsonObject integers;
+    private final JsonObjectPrintBenchmark.NullOutputStream outputStream =
+            new JsonObjectPrintBenchmark.NullOutputStream();
+
+    @Setup
+    public void setup() {
+        objects = JsonDocuments.arrayOfObjects(size);
+        integers = JsonDocuments.arrayOfIntegers(size * 10);
+
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        final List<JsonObject> rows = new ArrayList<JsonObject>(size);
+        for (int i = 0; i < size; ++i)
+            rows.add(JsonDocuments.flat(8));
+        parallelObjects = new JsonObject();
+        parallelObjects.addElement(JsonArrayOfObjectsElement.wrapParallel("rows", rows, executor, 250));
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public String printArrayOfObjects() {
+        return objects.printCompact();
+    }
+
+    @Benchmark
+    public long writeArrayOfObjects() throws IOException {
+        objects.writeUtf8To(outputStream, JsonFormat.COMPACT);
+        return outputStream.count;
+    }
+
+    @Benchmark
+    public String printArrayOfObjectsInParallel() {
+        return parallelObjects.printCompact();
+    }
+
+    @Benchmark
+    public String printArrayOfIntegers() {
+        return integers.printCompact();
+    }
+
+    @Benchmark
+    public long writeArrayOfIntegers() throws IOException {
+        integers.writeUtf8To(outputStream, JsonFormat.COMPACT);
+        return outputStream.count;
+    }
+}
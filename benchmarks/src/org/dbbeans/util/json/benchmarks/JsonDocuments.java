@@ -0,0 +1,118 @@
+package org.dbbeans.util.json.benchmarks;
+
+import org.dbbeans.util.json.JsonArrayOfIntegersElement;
+import org.dbbeans.util.json.JsonArrayOfObjectsElement;
+import org.dbbeans.util.json.JsonArrayOfStringsElement;
+import org.dbbeans.util.json.JsonBooleanElement;
+import org.dbbeans.util.json.JsonDateElement;
+import org.dbbeans.util.json.JsonIntegerElement;
+import org.dbbeans.util.json.JsonObject;
+import org.dbbeans.util.json.JsonObjectElement;
+import org.dbbeans.util.json.JsonStringElement;
+
+import java.sql.Date;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the documents used by the json benchmarks.
+ */
+final class JsonDocuments {
+
+    /**
+     * @param fieldCount number of elements in the object.
+     * @return a single object containing <code>fieldCount</code> elements of various types.
+     */
+    static JsonObject flat(final int fieldCount) {
+        final JsonObject jsonObject = new JsonObject();
+        for (int i = 0; i < fieldCount; ++i) {
+            switch (i % 4) {
+                case 0:
+                    jsonObject.addElement(new JsonStringElement("string" + i, "value " + i));
+                    break;
+                case 1:
+                    jsonObject.addElement(new JsonIntegerElement("integer" + i, i * 1000003L));
+                    break;
+                case 2:
+                    jsonObject.addElement(new JsonBooleanElement("boolean" + i, i % 3 == 0));
+                    break;
+                default:
+                    jsonObject.addElement(new JsonDateElement("date" + i, new Date(1400000000000L + i * 86400000L)));
+            }
+        }
+
+        return jsonObject;
+    }
+
+    /**
+     * @param depth nesting level of the document.
+     * @return a chain of <code>depth</code> nested objects, each with a few scalar elements.
+     */
+    static JsonObject deep(final int depth) {
+        JsonObject jsonObject = flat(4);
+        for (int i = 0; i < depth; ++i) {
+            final JsonObject parent = flat(4);
+            parent.addElement(new JsonObjectElement("child", jsonObject));
+            jsonObject = parent;
+        }
+
+        return jsonObject;
+    }
+
+    /**
+     * @param count number of objects in the array.
+     * @return an object containing an array of <code>count</code> small objects.
+     */
+    static JsonObject arrayOfObjects(final int count) {
+        final List<JsonObject> objects = new ArrayList<JsonObject>(count);
+        for (int i = 0; i < count; ++i)
+            objects.add(flat(8));
+
+        final JsonObject jsonObject = new JsonObject();
+        jsonObject.addElement(JsonArrayOfObjectsElement.wrap("rows", objects));
+        return jsonObject;
+    }
+
+    /**
+     * @param count number of integers in the array.
+     * @return an object containing an array of <code>count</code> integers.
+     */
+    static JsonObject arrayOfIntegers(final int count) {
+        final List<Long> values = new ArrayList<Long>(count);
+        for (int i = 0; i < count; ++i)
+            values.add(i * 7919L - 50000L);
+
+        final JsonObject jsonObject = new JsonObject();
+        jsonObject.addElement(new JsonArrayOfIntegersElement("values", values));
+        return jsonObject;
+    }
+
+    /**
+     * @param count number of strings in the document.
+     * @param length length of each string.
+     * @param escapes true if the strings should contain characters that must be escaped.
+     * @return an object containing <code>count</code> string elements and an array of the same strings.
+     */
+    static JsonObject strings(final int count, final int length, final boolean escapes) {
+        final List<String> values = new ArrayList<String>(count);
+        final JsonObject jsonObject = new JsonObject();
+        for (int i = 0; i < count; ++i) {
+            final StringBuilder buf = new StringBuilder(length);
+            for (int j = 0; j < length; ++j) {
+                if (escapes && j % 40 == 39)
+                    buf.append(j % 80 == 79 ? '"' : '\n');
+                else
+                    buf.append((char) ('a' + (i + j) % 26));
+            }
+            final String value = buf.toString();
+            values.add(value);
+            jsonObject.addElement(new JsonStringElement("text" + i, value));
+        }
+        jsonObject.addElement(new JsonArrayOfStringsElement("texts", values));
+
+        return jsonObject;
+    }
+
+    private JsonDocuments() { }
+}
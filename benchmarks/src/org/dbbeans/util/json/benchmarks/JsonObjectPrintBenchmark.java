@@ -0,0 +1,85 @@
+package org.dbbeans.util.json.benchmarks;
+
+import org.dbbeans.util.json.JsonFormat;
+import org.dbbeans.util.json.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+
+/**
+ * Measures the cost of printing flat, deep and wide documents with {@link JsonObject}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonObjectPrintBenchmark {
+
+    @Param({ "flat", "deep", "wide" })
+    public String shape;
+
+    private JsonObject document;
+    private final NullOutputStream outputStream = new NullOutputStream();
+
+    @Setup
+    public void setup() {
+        if (shape.equals("flat"))
+            document = JsonDocuments.flat(40);
+        else if (shape.equals("deep"))
+            document = JsonDocuments.deep(50);
+        else if (shape.equals("wide"))
+            document = JsonDocuments.flat(2000);
+        else
+            throw new IllegalArgumentException("Unknown shape: " + shape);
+    }
+
+    @Benchmark
+    public String printPretty() {
+        return document.print(0, true);
+    }
+
+    @Benchmark
+    public String printCompact() {
+        return document.printCompact();
+    }
+
+    @Benchmark
+    public StringWriter writeToWriter() throws IOException {
+        final StringWriter writer = new StringWriter();
+        document.writeTo(writer, JsonFormat.COMPACT);
+        return writer;
+    }
+
+    @Benchmark
+    public long writeToOutputStream() throws IOException {
+        document.writeUtf8To(outputStream, JsonFormat.COMPACT);
+        return outputStream.count;
+    }
+
+    static class NullOutputStream extends OutputStream {
+        long count = 0;
+
+        @Override
+        public void write(final int b) {
+            ++count;
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) {
+            count += length;
+        }
+    }
+}
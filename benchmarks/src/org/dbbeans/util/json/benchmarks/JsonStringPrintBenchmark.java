@@ -0,0 +1,54 @@
+package org.dbbeans.util.json.benchmarks;
+
+import org.dbbeans.util.json.JsonFormat;
+import org.dbbeans.util.json.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+
+/**
+ * Measures the cost of printing documents made mostly of strings, with and without characters to escape.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonStringPrintBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean escapes;
+
+    @Param({ "16", "512" })
+    public int length;
+
+    private JsonObject document;
+    private final JsonObjectPrintBenchmark.NullOutputStream outputStream =
+            new JsonObjectPrintBenchmark.NullOutputStream();
+
+    @Setup
+    public void setup() {
+        document = JsonDocuments.strings(500, length, escapes);
+    }
+
+    @Benchmark
+    public String printCompact() {
+        return document.printCompact();
+    }
+
+    @Benchmark
+    public long writeToOutputStream() throws IOException {
+        document.writeUtf8To(outputStream, JsonFormat.COMPACT);
+        return outputStream.count;
+    }
+}
@@ -0,0 +1,83 @@
+package org.dbbeans.util;
+
+/**
+ * This class represents a set of characters, stored as a bit set indexed by code point, so that checking if a
+ * character belongs to the set only costs a shift and a mask.
+ * <p>Instances of this class are immutable and can be shared between threads.</p>
+ * @see CharacterLists
+ */
+public final class CharacterClass {
+
+    /**
+     * Creates a character class containing all the characters of a CharSequence. Surrogate pairs are added as a
+     * single supplementary code point.
+     * @param characters the characters belonging to the class.
+     */
+    public CharacterClass(final CharSequence characters) {
+        int max = -1;
+        for (int i = 0; i < characters.length(); ) {
+            final int codePoint = Character.codePointAt(characters, i);
+            max = Math.max(max, codePoint);
+            i += Character.charCount(codePoint);
+        }
+
+        bits = new long[(max >> 6) + 1];
+        int count = 0;
+        for (int i = 0; i < characters.length(); ) {
+            final int codePoint = Character.codePointAt(characters, i);
+            if (!contains(codePoint)) {
+                bits[codePoint >> 6] |= 1L << codePoint;
+                ++count;
+            }
+            i += Character.charCount(codePoint);
+        }
+        size = count;
+    }
+
+    /**
+     * Checks if a character belongs to this class.
+     * @param c the character to be checked.
+     * @return true if the character belongs to this class.
+     */
+    public boolean contains(final char c) {
+        final int index = c >> 6;
+        return index < bits.length && (bits[index] & (1L << c)) != 0;
+    }
+
+    /**
+     * Checks if a code point belongs to this class.
+     * @param codePoint the code point to be checked.
+     * @return true if the code point belongs to this class.
+     */
+    public boolean contains(final int codePoint) {
+        final int index = codePoint >> 6;
+        return codePoint >= 0 && index < bits.length && (bits[index] & (1L << codePoint)) != 0;
+    }
+
+    /**
+     * Returns the index of the first character of a CharSequence that belongs to this class, starting at a given
+     * index. Surrogate pairs are not combined: each char is checked individually.
+     * @param content to be scanned.
+     * @param start index of the first character to be checked.
+     * @return the index of the first character belonging to this class, or -1 if there is none.
+     */
+    public int indexIn(final CharSequence content, final int start) {
+        final int length = content.length();
+        for (int i = start; i < length; i++)
+            if (contains(content.charAt(i)))
+                return i;
+
+        return -1;
+    }
+
+    /**
+     * Returns the number of characters in this class.
+     * @return the number of characters in this class.
+     */
+    public int size() {
+        return size;
+    }
+
+    private final long[] bits;
+    private final int size;
+}
@@ -130,4 +130,36 @@ public class CharacterLists {
     public static final String URL_RESERVED_CHARACTER_STRING = Strings.concat(URL_RESERVED_CHARACTER_LIST);
 
     public static final String URL_UNRESERVED_CHARACTER_STRING = Strings.concat(URL_UNRESERVED_CHARACTER_LIST);
+
+    public static final CharacterClass ACCENTED_CHARACTER_CLASS = new CharacterClass(ACCENTED_CHARACTER_STRING);
+
+    public static final CharacterClass UNACCENTED_CHARACTER_CLASS = new CharacterClass(UNACCENTED_CHARACTER_STRING);
+
+    public static final CharacterClass URL_RESERVED_CHARACTER_CLASS = new CharacterClass(URL_RESERVED_CHARACTER_STRING);
+
+    public static final CharacterClass URL_UNRESERVED_CHARACTER_CLASS =
+            new CharacterClass(URL_UNRESERVED_CHARACTER_STRING);
+
+    /**
+     * Returns the unaccented equivalent of a character, as defined by the lists of accented and unaccented
+     * characters in this class.
+     * @param c the character to be unaccented.
+     * @return the unaccented equivalent of <code>c</code>, or <code>c</code> itself if it is not an accented
+     * character.
+     * @see #ACCENTED_CHARACTER_CLASS
+     */
+    public static char getUnaccentedCharacter(final char c) {
+        if (c < UNACCENTED_BY_ACCENTED.length)
+            return UNACCENTED_BY_ACCENTED[c];
+        return c;
+    }
+
+    // unaccented characters indexed by accented character, other characters being mapped to themselves
+    private static final char[] UNACCENTED_BY_ACCENTED = new char[256];
+    static {
+        for (int i = 0; i < UNACCENTED_BY_ACCENTED.length; i++)
+            UNACCENTED_BY_ACCENTED[i] = (char) i;
+        for (int i = 0; i < ACCENTED_CHARACTERS.length; i++)
+            UNACCENTED_BY_ACCENTED[ACCENTED_CHARACTERS[i].charAt(0)] = UNACCENTED_CHARACTERS[i].charAt(0);
+    }
 }
@@ -0,0 +1,123 @@
+package org.dbbeans.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class replaces individual characters of a String by other characters or Strings, in a single pass. The
+ * replacements are stored in a table indexed by character, built once, so that translating a String only costs
+ * one table lookup per character.
+ * <p>Strings that contain none of the characters to be replaced are returned as is, without being copied.</p>
+ * <p>Instances of this class are immutable and can be shared between threads.</p>
+ * @see Strings#getUnaccentedString(String)
+ */
+public final class CharacterTranslator {
+
+    /**
+     * Creates a translator that replaces each character of a String by the character at the same position in
+     * another String.
+     * @param characters the characters to be replaced.
+     * @param replacements the corresponding replacement characters.
+     * @throws IllegalArgumentException if the two Strings are not of equal length.
+     */
+    public CharacterTranslator(final String characters, final String replacements) {
+        this(characters, replacements, new HashMap<Character, String>());
+    }
+
+    /**
+     * Creates a translator that replaces characters by other characters, and some characters by Strings, like
+     * '&#223;' by "ss".
+     * @param characters the characters to be replaced by a single character.
+     * @param replacements the corresponding replacement characters.
+     * @param expansions a Map of characters to be replaced by a String, to their replacement.
+     * @throws IllegalArgumentException if the two Strings are not of equal length.
+     */
+    public CharacterTranslator(
+            final String characters,
+            final String replacements,
+            final Map<Character, String> expansions)
+    {
+        if (characters.length() != replacements.length())
+            throw new IllegalArgumentException("length mismatch");
+
+        final StringBuilder translated = new StringBuilder(characters);
+        for (char c: expansions.keySet())
+            translated.append(c);
+        translatedCharacters = new CharacterClass(translated);
+
+        int max = -1;
+        for (int i = 0; i < translated.length(); i++)
+            max = Math.max(max, translated.charAt(i));
+
+        table = new String[max + 1];
+        for (int i = 0; i < characters.length(); i++)
+            table[characters.charAt(i)] = String.valueOf(replacements.charAt(i));
+        for (Map.Entry<Character, String> entry: expansions.entrySet()) {
+            if (entry.getValue() == null)
+                throw new NullPointerException("No replacement for character: " + entry.getKey());
+            table[entry.getKey()] = entry.getValue();
+        }
+    }
+
+    /**
+     * Translates a String.
+     * @param string to be translated.
+     * @return the translated String, or <code>string</code> itself if it contains no character to be replaced.
+     */
+    public String translate(final String string) {
+        final int first = indexOfFirstReplacement(string);
+        if (first < 0)
+            return string;
+
+        final StringBuilder buf = new StringBuilder(string.length() + 16);
+        buf.append(string, 0, first);
+        translate(string, first, buf);
+        return buf.toString();
+    }
+
+    /**
+     * Translates a CharSequence and appends the result to a StringBuilder.
+     * @param content to be translated.
+     * @param buf the StringBuilder to append the result to.
+     */
+    public void translate(final CharSequence content, final StringBuilder buf) {
+        translate(content, 0, buf);
+    }
+
+    /**
+     * Checks if a CharSequence contains at least one character that this translator replaces.
+     * @param content to be checked.
+     * @return true if <code>content</code> would be modified by this translator.
+     */
+    public boolean isTranslated(final CharSequence content) {
+        return indexOfFirstReplacement(content) >= 0;
+    }
+
+    private int indexOfFirstReplacement(final CharSequence content) {
+        return translatedCharacters.indexIn(content, 0);
+    }
+
+    private void translate(final CharSequence content, final int start, final StringBuilder buf) {
+        final int length = content.length();
+        int copied = start;
+        for (int i = start; i < length; i++) {
+            final char c = content.charAt(i);
+            if (!translatedCharacters.contains(c))
+                continue;
+            final String replacement = table[c];
+
+            if (copied < i)
+                buf.append(content, copied, i);
+            if (replacement.length() == 1)
+                buf.append(replacement.charAt(0));
+            else
+                buf.append(replacement);
+            copied = i + 1;
+        }
+        if (copied < length)
+            buf.append(content, copied, length);
+    }
+
+    private final CharacterClass translatedCharacters;
+    private final String[] table;
+}
@@ -1,12 +1,7 @@
 package org.dbbeans.util;
 
-import org.apache.commons.lang3.text.translate.AggregateTranslator;
-import org.apache.commons.lang3.text.translate.CharSequenceTranslator;
-import org.apache.commons.lang3.text.translate.EntityArrays;
-import org.apache.commons.lang3.text.translate.LookupTranslator;
+import java.io.IOException;
 
-import java.text.CharacterIterator;
-import java.text.StringCharacterIterator;
 import java.util.List;
 
 /**
@@ -15,30 +10,75 @@ import java.util.List;
 public class HTMLText {
 
     /**
-     * Replace all newlines in a string by the html tag &lt;br&gt;
+     * Replace all newlines in a string by the html tag &lt;br&gt;. Newlines can be represented by \n, \r\n or \r.
+     * Newlines at the end of the string are removed.
      * @param string to be converted
      * @return a string with all new lines replaced by the &lt;br&gt; tag
      */
     public static String linefeed2br(final String string) {
-        final String[] lines = string.split("\\\n");
-        final StringBuilder buf = new StringBuilder();
-        for (int i = 0; i < lines.length - 1; i++) {
-            buf.append(lines[i]);
-            buf.append("<br/>");
+        final StringBuilder buf = new StringBuilder(string.length() + 16);
+        try {
+            linefeed2br(string, buf, false);
+        } catch (final IOException ioex) {
+            throw new RuntimeException(ioex); // should never happen with a StringBuilder ...
         }
-        buf.append(lines[lines.length - 1]);
         return buf.toString();
     }
 
     /**
-     * Given a String containing HTML Unicode escape sequence (like {@literal &#233;}), this function returns
-     * a similar string with all Unicode escape sequence replaced by the corresponding named entity
-     * (like {@literal &eacute;}).
+     * Replace all newlines in a text by the html tag &lt;br&gt; and appends the result to an Appendable, optionally
+     * escaping HTML special characters at the same time, like {@link #escapeHTMLtext(String)}. Newlines can be
+     * represented by \n, \r\n or \r. Newlines at the end of the text are removed. The text is processed in a
+     * single pass.
+     * @param text to be converted
+     * @param out the Appendable to write the converted text to
+     * @param escapeHTML true if the HTML special characters must be escaped
+     * @throws IOException if out throws an IOException.
+     * @see #linefeed2br(String)
+     */
+    public static void linefeed2br(final CharSequence text, final Appendable out, final boolean escapeHTML)
+            throws IOException
+    {
+        final String[] escapes = escapeHTML ? HTML_ESCAPES : NO_ESCAPES;
+        final int length = text.length();
+        int copied = 0;
+        int pendingBreaks = 0;  // written only once followed by some text
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                if (copied < i)
+                    out.append(text, copied, i);
+                if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n')
+                    ++i;
+                copied = i + 1;
+                ++pendingBreaks;
+                continue;
+            }
+
+            for (; pendingBreaks > 0; --pendingBreaks)
+                out.append("<br/>");
+            final String escape = getEscape(c, escapes);
+            if (escape != null) {
+                if (copied < i)
+                    out.append(text, copied, i);
+                out.append(escape);
+                copied = i + 1;
+            }
+        }
+        if (copied < length)
+            out.append(text, copied, length);
+    }
+
+    /**
+     * Given a String containing HTML Unicode escape sequence (like {@literal &#233;} or {@literal &#xE9;}), this
+     * function returns a similar string with all Unicode escape sequence replaced by the corresponding named entity
+     * (like {@literal &eacute;}). Only the accented characters listed in {@link CharacterLists} are processed.
+     * The text is processed in a single pass and is returned as is if there is nothing to replace.
      * @param text to be processed.
      * @return a string with Unicode escape sequences replaced by the corresponding named entities.
      */
     public static String numberToEscape(final String text) {
-        return swapCharEntities(text, NUMBER_PATTERN, ESCAPE_PATTERN);
+        return HtmlEntities.numbersToNamed(text);
     }
 
     /**
@@ -46,36 +86,48 @@ public class HTMLText {
      * a similar string with all accented characters replaced by the corresponding named entity
      * (like {@literal &eacute;}).
      * @param text to be processed.
-     * @return a string with accented characters replaced by the corresponding named entities.
+     * @return a string with accented characters replaced by the corresponding named entities, or null if text is
+     * null.
      */
     public static String accentsToEscape(final String text) {
-        return HTMl_ACCENTED_CHARACTERS_ESCAPE.translate(text);
+        return HtmlEntities.escape(text);
     }
 
-    private static final CharSequenceTranslator HTMl_ACCENTED_CHARACTERS_ESCAPE =
-            new AggregateTranslator(
-                    new LookupTranslator(EntityArrays.ISO8859_1_ESCAPE()),
-                    new LookupTranslator(EntityArrays.HTML40_EXTENDED_ESCAPE())
-            );
+    /**
+     * Replaces all accented characters (like &eacute;) in a CharSequence by the corresponding named entity
+     * (like {@literal &eacute;}) and appends the result to an Appendable.
+     * @param text to be processed.
+     * @param out the Appendable to write the processed text to.
+     * @throws IOException if out throws an IOException.
+     * @see #accentsToEscape(String)
+     */
+    public static void accentsToEscape(final CharSequence text, final Appendable out) throws IOException {
+        HtmlEntities.escape(text, out);
+    }
 
     /**
      * Given a String containing named entities (like {@literal &eacute;}), this function returns
      * a similar string with all named entities replaced by the corresponding accented character (like &eacute;).
+     * Only the accented characters listed in {@link CharacterLists} are processed. The text is processed in a
+     * single pass and is returned as is if there is nothing to replace.
      * @param text to be processed.
      * @return a string with named entities replaced by the corresponding accented characters.
+     * @see #decodeEntities(String)
      */
     public static String escapeToAccents(final String text) {
-        return swapCharEntities(text, ESCAPE_PATTERN, ACCENTED_CHARACTERS);
+        return HtmlEntities.namedToAccents(text);
     }
 
-    private static String swapCharEntities(final String text, final String[] source, final String[] target) {
-        String result = text;
-        if (source.length != target.length)
-            throw new IllegalStateException(); // should never happen ...
-        int max = source.length;
-        for (int i = 0; i < max; i++)
-            result = result.replaceAll(source[i], target[i]);
-        return result;
+    /**
+     * Given a String containing HTML entities, this function returns a similar string with all named entities
+     * defined by HTML 4 (like {@literal &eacute;} or {@literal &amp;}) and all numeric entities (like
+     * {@literal &#233;} or {@literal &#xE9;}) replaced by the character they represent. Unknown entities are left
+     * untouched. The text is processed in a single pass and is returned as is if it contains no entity.
+     * @param text to be processed.
+     * @return a string with entities replaced by the corresponding characters.
+     */
+    public static String decodeEntities(final String text) {
+        return HtmlEntities.decode(text);
     }
 
     /**
@@ -86,28 +138,20 @@ public class HTMLText {
      * @see #escapeEssentialHTMLtext(String)
      */
     public static String escapeHTMLtext(final String text) {
-        final StringBuilder result = new StringBuilder();
-        final StringCharacterIterator iterator = new StringCharacterIterator(text);
-        char character =  iterator.current();
-        while (character != CharacterIterator.DONE ){
-            if (character == '<') {
-                result.append("&lt;");
-            } else if (character == '>') {
-                result.append("&gt;");
-            } else if (character == '\"') {
-                result.append("&quot;");
-            } else if (character == '\'') {
-                result.append("&#039;");
-            } else if (character == '\\') {
-                result.append("&#092;");
-            } else if (character == '&') {
-                result.append("&amp;");
-            } else {
-                result.append(character);
-            }
-            character = iterator.next();
-        }
-        return result.toString();
+        return escape(text, HTML_ESCAPES);
+    }
+
+    /**
+     * Escapes the following characters to their HTML entity equivalents: &lt;, &gt;, ", ', \, &amp;, and appends
+     * the result to an Appendable. Runs of characters that need no escaping are appended in one call.
+     * @param text to be escaped.
+     * @param out the Appendable to write the escaped text to.
+     * @throws IOException if out throws an IOException.
+     * @see #escapeHTMLtext(String)
+     * @see HtmlEscapingWriter
+     */
+    public static void escapeHTMLtext(final CharSequence text, final Appendable out) throws IOException {
+        escape(text, 0, text.length(), out, HTML_ESCAPES);
     }
 
     /**
@@ -118,22 +162,63 @@ public class HTMLText {
      * @see #escapeHTMLtext(String)
      */
     public static String escapeEssentialHTMLtext(final String text) {
-        final StringBuilder result = new StringBuilder();
-        final StringCharacterIterator iterator = new StringCharacterIterator(text);
-        char character =  iterator.current();
-        while (character != CharacterIterator.DONE ){
-            if (character == '<') {
-                result.append("&lt;");
-            } else if (character == '>') {
-                result.append("&gt;");
-            } else if (character == '&') {
-                result.append("&amp;");
-            } else {
-                result.append(character);
+        return escape(text, ESSENTIAL_HTML_ESCAPES);
+    }
+
+    /**
+     * Escapes the following characters to their HTML entity equivalents: &lt;, &gt;, &amp;, and appends the result
+     * to an Appendable. Runs of characters that need no escaping are appended in one call.
+     * @param text to be escaped.
+     * @param out the Appendable to write the escaped text to.
+     * @throws IOException if out throws an IOException.
+     * @see #escapeEssentialHTMLtext(String)
+     * @see HtmlEscapingWriter
+     */
+    public static void escapeEssentialHTMLtext(final CharSequence text, final Appendable out) throws IOException {
+        escape(text, 0, text.length(), out, ESSENTIAL_HTML_ESCAPES);
+    }
+
+    private static String escape(final String text, final String[] escapes) {
+        final int length = text.length();
+        int first = 0;
+        while (first < length && getEscape(text.charAt(first), escapes) == null)
+            ++first;
+        if (first == length)
+            return text;
+
+        final StringBuilder buf = new StringBuilder(length + 16);
+        buf.append(text, 0, first);
+        try {
+            escape(text, first, length, buf, escapes);
+        } catch (final IOException ioex) {
+            throw new RuntimeException(ioex); // should never happen with a StringBuilder ...
+        }
+        return buf.toString();
+    }
+
+    private static void escape(
+            final CharSequence text,
+            final int start,
+            final int end,
+            final Appendable out,
+            final String[] escapes) throws IOException
+    {
+        int copied = start;
+        for (int i = start; i < end; i++) {
+            final String escape = getEscape(text.charAt(i), escapes);
+            if (escape != null) {
+                if (copied < i)
+                    out.append(text, copied, i);
+                out.append(escape);
+                copied = i + 1;
             }
-            character = iterator.next();
         }
-        return result.toString();
+        if (copied < end)
+            out.append(text, copied, end);
+    }
+
+    static String getEscape(final char c, final String[] escapes) {
+        return c < escapes.length ? escapes[c] : null;
     }
 
     /**
@@ -147,18 +232,43 @@ public class HTMLText {
             return "";
 
         final StringBuilder buf = new StringBuilder();
-
-        for (String item: items)
-            buf.append(item).append("<br>");
-
-        buf.delete(buf.length() - 4, buf.length());
-
+        try {
+            brList(items, buf);
+        } catch (final IOException ioex) {
+            throw new RuntimeException(ioex); // should never happen with a StringBuilder ...
+        }
         return buf.toString();
     }
 
-    private final static String[] NUMBER_PATTERN = CharacterLists.getNumberPatternArray();
-
-    private final static String[] ESCAPE_PATTERN = CharacterLists.getEscapePatternArray();
+    /**
+     * Appends every item in a List to an Appendable, separated by &lt;br&gt; tags.
+     * @param items to be written
+     * @param out the Appendable to write the items to
+     * @throws IOException if out throws an IOException.
+     * @see #brList(List)
+     */
+    public static void brList(final List<? extends CharSequence> items, final Appendable out) throws IOException {
+        boolean first = true;
+        for (CharSequence item: items) {
+            if (first)
+                first = false;
+            else
+                out.append("<br>");
+            out.append(item);
+        }
+    }
 
-    private final static String[] ACCENTED_CHARACTERS = CharacterLists.getAccentedCharacterArray();
+    // indexed by character, null for characters that need no escaping
+    final static String[] HTML_ESCAPES = new String['\\' + 1];
+    final static String[] ESSENTIAL_HTML_ESCAPES = new String['>' + 1];
+    private final static String[] NO_ESCAPES = new String[0];
+    static {
+        ESSENTIAL_HTML_ESCAPES['<'] = "&lt;";
+        ESSENTIAL_HTML_ESCAPES['>'] = "&gt;";
+        ESSENTIAL_HTML_ESCAPES['&'] = "&amp;";
+        System.arraycopy(ESSENTIAL_HTML_ESCAPES, 0, HTML_ESCAPES, 0, ESSENTIAL_HTML_ESCAPES.length);
+        HTML_ESCAPES['"'] = "&quot;";
+        HTML_ESCAPES['\''] = "&#039;";
+        HTML_ESCAPES['\\'] = "&#092;";
+    }
 }
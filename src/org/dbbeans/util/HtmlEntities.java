@@ -0,0 +1,320 @@
+package org.dbbeans.util;
+
+import org.apache.commons.lang3.text.translate.EntityArrays;
+
+import java.io.IOException;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tables and single pass translation functions for HTML entities, used by {@link HTMLText}.
+ * <p>Entities are recognized in one left to right scan: the text is only copied once an entity to be replaced is
+ * found, so that texts without any entity, or without any '&amp;' character at all, are returned as is.</p>
+ */
+final class HtmlEntities {
+
+    private HtmlEntities() { }
+
+    /**
+     * Replaces all named entities defined by HTML 4 and all numeric entities, in decimal or hexadecimal form, by
+     * the character they represent. Unknown entities are left untouched.
+     * @param text to be processed.
+     * @return the decoded text, or <code>text</code> itself if it contains no entity.
+     */
+    static String decode(final String text) {
+        return translate(text, DECODE);
+    }
+
+    /**
+     * Replaces the named entities of the accented characters listed in {@link CharacterLists} by the corresponding
+     * characters. Other entities are left untouched.
+     * @param text to be processed.
+     * @return the decoded text, or <code>text</code> itself if it contains no such entity.
+     */
+    static String namedToAccents(final String text) {
+        return translate(text, NAMED_TO_ACCENTS);
+    }
+
+    /**
+     * Replaces the numeric entities of the accented characters listed in {@link CharacterLists}, in decimal or
+     * hexadecimal form, by the corresponding named entities. Other entities are left untouched.
+     * @param text to be processed.
+     * @return the processed text, or <code>text</code> itself if it contains no such entity.
+     */
+    static String numbersToNamed(final String text) {
+        return translate(text, NUMBERS_TO_NAMED);
+    }
+
+    /**
+     * Replaces the characters that have a named entity in HTML 4, except the basic ones (&lt;, &gt;, " and &amp;),
+     * by their named entity.
+     * @param text to be processed.
+     * @return the processed text, or <code>text</code> itself if it contains no such character or is null.
+     */
+    static String escape(final String text) {
+        if (text == null)
+            return null;
+
+        final int first = indexOfEscaped(text);
+        if (first < 0)
+            return text;
+
+        final StringBuilder buf = new StringBuilder(text.length() + 64);
+        buf.append(text, 0, first);
+        try {
+            escape(text, first, buf);
+        } catch (final IOException ioex) {
+            throw new RuntimeException(ioex); // should never happen with a StringBuilder ...
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Replaces the characters that have a named entity in HTML 4, except the basic ones, by their named entity,
+     * and appends the result to an Appendable.
+     * @param text to be processed.
+     * @param out the Appendable to write the processed text to.
+     * @throws IOException if out throws an IOException.
+     */
+    static void escape(final CharSequence text, final Appendable out) throws IOException {
+        escape(text, 0, out);
+    }
+
+    private static int indexOfEscaped(final CharSequence text) {
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if (c >= FIRST_ESCAPED && c < ESCAPES.length && ESCAPES[c] != null)
+                return i;
+        }
+
+        return -1;
+    }
+
+    private static void escape(final CharSequence text, final int start, final Appendable out) throws IOException {
+        final int length = text.length();
+        int copied = start;
+        for (int i = start; i < length; i++) {
+            final char c = text.charAt(i);
+            // ASCII fast path
+            if (c < FIRST_ESCAPED || c >= ESCAPES.length)
+                continue;
+            final String escape = ESCAPES[c];
+            if (escape == null)
+                continue;
+
+            if (copied < i)
+                out.append(text, copied, i);
+            out.append(escape);
+            copied = i + 1;
+        }
+        if (copied < length)
+            out.append(text, copied, length);
+    }
+
+    private static String translate(final String text, final int mode) {
+        int ampersand = text.indexOf('&');
+        if (ampersand < 0)
+            return text;
+
+        StringBuilder buf = null;
+        int copied = 0;
+        while (ampersand >= 0) {
+            final int semicolon = findSemicolon(text, ampersand + 1);
+            final int replacement = semicolon < 0 ? -1 : getReplacement(text, ampersand + 1, semicolon, mode);
+            if (replacement < 0) {
+                ampersand = text.indexOf('&', ampersand + 1);
+                continue;
+            }
+
+            if (buf == null)
+                buf = new StringBuilder(text.length());
+            buf.append(text, copied, ampersand);
+            if (mode == NUMBERS_TO_NAMED)
+                buf.append(NAMED_ACCENTS[replacement]);
+            else
+                buf.appendCodePoint(replacement);
+            copied = semicolon + 1;
+            ampersand = text.indexOf('&', copied);
+        }
+
+        if (buf == null)
+            return text;
+        buf.append(text, copied, text.length());
+        return buf.toString();
+    }
+
+    private static int findSemicolon(final String text, final int start) {
+        final int limit = Math.min(text.length(), start + MAX_ENTITY_LENGTH + 1);
+        for (int i = start; i < limit; i++) {
+            final char c = text.charAt(i);
+            if (c == ';')
+                return i;
+            if (c == '&')
+                return -1;
+        }
+
+        return -1;
+    }
+
+    // returns the code point of the character replacing the entity between start and end, or -1 if the entity
+    // is not to be replaced
+    private static int getReplacement(final String text, final int start, final int end, final int mode) {
+        if (start == end)
+            return -1;
+
+        if (text.charAt(start) == '#') {
+            if (mode == NAMED_TO_ACCENTS)
+                return -1;
+            final int codePoint = parseCodePoint(text, start + 1, end);
+            if (mode == NUMBERS_TO_NAMED && (codePoint >= NAMED_ACCENTS.length || codePoint < 0
+                    || NAMED_ACCENTS[codePoint] == null))
+                return -1;
+            return codePoint;
+        }
+
+        if (mode == NUMBERS_TO_NAMED)
+            return -1;
+        final EntityTable table = mode == DECODE ? ALL_ENTITIES : ACCENT_ENTITIES;
+        final int index = table.indexOf(text, start, end);
+        if (index < 0)
+            return -1;
+        return table.characters[index];
+    }
+
+    // returns -1 if the characters do not represent a valid code point
+    private static int parseCodePoint(final String text, final int start, final int end) {
+        if (start == end)
+            return -1;
+
+        int index = start;
+        int radix = 10;
+        final char first = text.charAt(index);
+        if (first == 'x' || first == 'X') {
+            radix = 16;
+            if (++index == end)
+                return -1;
+        }
+
+        int codePoint = 0;
+        while (index < end) {
+            final char c = text.charAt(index++);
+            final int digit = c < 0x80 ? Character.digit(c, radix) : -1;
+            if (digit < 0)
+                return -1;
+            codePoint = codePoint * radix + digit;
+            if (codePoint > Character.MAX_CODE_POINT)
+                return -1;
+        }
+
+        return codePoint;
+    }
+
+    // entity names sorted in natural String order, so that they can be looked up without creating a substring
+    private static class EntityTable {
+
+        EntityTable(final Map<String, Character> entities) {
+            names = new String[entities.size()];
+            characters = new char[entities.size()];
+            int index = 0;
+            for (Map.Entry<String, Character> entity: new TreeMap<String, Character>(entities).entrySet()) {
+                names[index] = entity.getKey();
+                characters[index] = entity.getValue();
+                ++index;
+            }
+        }
+
+        int indexOf(final String text, final int start, final int end) {
+            int low = 0;
+            int high = names.length - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final int comparison = compare(names[middle], text, start, end);
+                if (comparison < 0)
+                    low = middle + 1;
+                else if (comparison > 0)
+                    high = middle - 1;
+                else
+                    return middle;
+            }
+
+            return -1;
+        }
+
+        private static int compare(final String name, final String text, final int start, final int end) {
+            final int length = Math.min(name.length(), end - start);
+            for (int i = 0; i < length; i++) {
+                final int difference = name.charAt(i) - text.charAt(start + i);
+                if (difference != 0)
+                    return difference;
+            }
+            return name.length() - (end - start);
+        }
+
+        private final String[] names;
+        private final char[] characters;
+    }
+
+    private static Map<String, Character> getEntityMap(final String[][]... unescapeArrays) {
+        final Map<String, Character> entities = new TreeMap<String, Character>();
+        for (String[][] unescapeArray: unescapeArrays)
+            for (String[] pair: unescapeArray)
+                entities.put(getEntityName(pair[0]), pair[1].charAt(0));
+        return entities;
+    }
+
+    private static String getEntityName(final String entity) {
+        return entity.substring(1, entity.length() - 1);
+    }
+
+    private static String[] getEscapeTable(final String[][]... escapeArrays) {
+        int max = 0;
+        for (String[][] escapeArray: escapeArrays)
+            for (String[] pair: escapeArray)
+                max = Math.max(max, pair[0].charAt(0));
+
+        final String[] escapes = new String[max + 1];
+        for (String[][] escapeArray: escapeArrays)
+            for (String[] pair: escapeArray)
+                if (escapes[pair[0].charAt(0)] == null)  // first one wins, like with an AggregateTranslator
+                    escapes[pair[0].charAt(0)] = pair[1];
+        return escapes;
+    }
+
+    private static final int DECODE = 0;
+    private static final int NAMED_TO_ACCENTS = 1;
+    private static final int NUMBERS_TO_NAMED = 2;
+
+    // longest name or number between '&' and ';', like "thetasym" or "#x10FFFF", with some room for leading zeros
+    private static final int MAX_ENTITY_LENGTH = 16;
+
+    // entities indexed by character, null for characters that are not to be escaped
+    private static final String[] ESCAPES = getEscapeTable(
+            EntityArrays.ISO8859_1_ESCAPE(),
+            EntityArrays.HTML40_EXTENDED_ESCAPE());
+
+    // no ASCII character is escaped, the first one being the non-breaking space
+    private static final char FIRST_ESCAPED = '\u00A0';
+
+    private static final EntityTable ALL_ENTITIES = new EntityTable(getEntityMap(
+            EntityArrays.BASIC_UNESCAPE(),
+            EntityArrays.ISO8859_1_UNESCAPE(),
+            EntityArrays.HTML40_EXTENDED_UNESCAPE()));
+
+    private static final EntityTable ACCENT_ENTITIES;
+
+    // named entities of the accented characters, indexed by character
+    private static final String[] NAMED_ACCENTS = new String[256];
+
+    static {
+        final Map<String, Character> accentEntities = new TreeMap<String, Character>();
+        for (int i = 0; i < CharacterLists.ESCAPE_PATTERN_LIST.size(); i++) {
+            final String entity = CharacterLists.ESCAPE_PATTERN_LIST.get(i);
+            final char accented = CharacterLists.ACCENTED_CHARACTER_LIST.get(i).charAt(0);
+            accentEntities.put(getEntityName(entity), accented);
+            NAMED_ACCENTS[accented] = entity;
+        }
+        ACCENT_ENTITIES = new EntityTable(accentEntities);
+    }
+}
@@ -0,0 +1,80 @@
+package org.dbbeans.util;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * This class is a Writer that escapes HTML special characters before passing them to another Writer, so that
+ * user supplied text can be escaped while being written to a servlet response or a template output, without
+ * creating an escaped copy of it first.
+ * <p>By default, the characters escaped are the same as with {@link HTMLText#escapeHTMLtext(String)}. The
+ * writer can also be created to escape only the essential characters, like
+ * {@link HTMLText#escapeEssentialHTMLtext(String)}.</p>
+ * <p>Runs of characters that need no escaping are passed to the underlying Writer in one call.</p>
+ */
+public class HtmlEscapingWriter extends FilterWriter {
+
+    /**
+     * Creates a writer that escapes &lt;, &gt;, ", ', \, &amp;.
+     * @param out the Writer to pass the escaped characters to.
+     */
+    public HtmlEscapingWriter(final Writer out) {
+        this(out, false);
+    }
+
+    /**
+     * Creates a writer that escapes HTML special characters.
+     * @param out the Writer to pass the escaped characters to.
+     * @param essentialOnly true to escape only &lt;, &gt; and &amp;, false to also escape ", ' and \.
+     */
+    public HtmlEscapingWriter(final Writer out, final boolean essentialOnly) {
+        super(out);
+        escapes = essentialOnly ? HTMLText.ESSENTIAL_HTML_ESCAPES : HTMLText.HTML_ESCAPES;
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        final String escape = HTMLText.getEscape((char) c, escapes);
+        if (escape == null)
+            out.write(c);
+        else
+            out.write(escape);
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) throws IOException {
+        final int end = off + len;
+        int copied = off;
+        for (int i = off; i < end; i++) {
+            final String escape = HTMLText.getEscape(cbuf[i], escapes);
+            if (escape != null) {
+                if (copied < i)
+                    out.write(cbuf, copied, i - copied);
+                out.write(escape);
+                copied = i + 1;
+            }
+        }
+        if (copied < end)
+            out.write(cbuf, copied, end - copied);
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException {
+        final int end = off + len;
+        int copied = off;
+        for (int i = off; i < end; i++) {
+            final String escape = HTMLText.getEscape(str.charAt(i), escapes);
+            if (escape != null) {
+                if (copied < i)
+                    out.write(str, copied, i - copied);
+                out.write(escape);
+                copied = i + 1;
+            }
+        }
+        if (copied < end)
+            out.write(str, copied, end - copied);
+    }
+
+    private final String[] escapes;
+}
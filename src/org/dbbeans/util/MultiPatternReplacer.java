@@ -0,0 +1,249 @@
+package org.dbbeans.util;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * This class replaces many substrings of a String at once. It is built once from a Map of targets to
+ * replacements, which is compiled into an Aho-Corasick automaton, and can then be reused to process any number
+ * of Strings.
+ * <p>Each String is processed in a single left to right pass, in which every character is read once: at each
+ * position, the longest target starting there is replaced, and the search resumes after it. Replacement text is
+ * never searched for targets, so the result does not depend on the iteration order of the Map. When several targets
+ * start at the same position, the longest one wins.</p>
+ * <p>Instances of this class are immutable and can be shared between threads.</p>
+ * @see Strings#replaceMany(String, Map)
+ */
+public final class MultiPatternReplacer {
+
+    /**
+     * Creates a replacer from a Map of targets to replacements. The Map is copied.
+     * @param replacements a Map of parts to be replaced with their replacement.
+     * @throws IllegalArgumentException if one of the targets is empty.
+     * @throws NullPointerException if one of the targets or replacements is null.
+     */
+    public MultiPatternReplacer(final Map<String, String> replacements) {
+        final List<TreeMap<Character, Integer>> transitions = new ArrayList<TreeMap<Character, Integer>>();
+        final List<Integer> nodeDepths = new ArrayList<Integer>();
+        final List<Integer> nodeMatches = new ArrayList<Integer>();
+        transitions.add(new TreeMap<Character, Integer>());
+        nodeDepths.add(0);
+        nodeMatches.add(-1);
+
+        this.replacements = new String[replacements.size()];
+        int index = 0;
+        for (Map.Entry<String, String> entry: replacements.entrySet()) {
+            final String target = entry.getKey();
+            if (target.length() == 0)
+                throw new IllegalArgumentException("Empty target");
+            if (entry.getValue() == null)
+                throw new NullPointerException("No replacement for target: " + target);
+
+            int node = 0;
+            for (int i = 0; i < target.length(); i++) {
+                final Character c = target.charAt(i);
+                Integer child = transitions.get(node).get(c);
+                if (child == null) {
+                    child = transitions.size();
+                    transitions.add(new TreeMap<Character, Integer>());
+                    nodeDepths.add(i + 1);
+                    nodeMatches.add(-1);
+                    transitions.get(node).put(c, child);
+                }
+                node = child;
+            }
+            nodeMatches.set(node, index);
+            this.replacements[index++] = entry.getValue();
+        }
+
+        final int nodeCount = transitions.size();
+        int deepest = 0;
+        labels = new char[nodeCount][];
+        children = new int[nodeCount][];
+        depths = new int[nodeCount];
+        matches = new int[nodeCount];
+        failures = new int[nodeCount];
+        outputs = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            final TreeMap<Character, Integer> nodeTransitions = transitions.get(node);
+            labels[node] = new char[nodeTransitions.size()];
+            children[node] = new int[nodeTransitions.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> transition: nodeTransitions.entrySet()) {
+                labels[node][i] = transition.getKey();
+                children[node][i] = transition.getValue();
+                ++i;
+            }
+            depths[node] = nodeDepths.get(node);
+            matches[node] = nodeMatches.get(node);
+            deepest = Math.max(deepest, depths[node]);
+        }
+        maxDepth = deepest;
+
+        computeFailures();
+    }
+
+    // breadth first, so that the failure of a node is always computed before those of its children
+    private void computeFailures() {
+        final Queue<Integer> queue = new LinkedList<Integer>();
+        failures[0] = 0;
+        outputs[0] = -1;
+        for (int child: children[0]) {
+            failures[child] = 0;
+            outputs[child] = matches[child] >= 0 ? child : -1;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            final int node = queue.remove();
+            for (int i = 0; i < labels[node].length; i++) {
+                final int child = children[node][i];
+                final int failure = transition(failures[node], labels[node][i]);
+                failures[child] = failure;
+                outputs[child] = matches[child] >= 0 ? child : outputs[failure];
+                queue.add(child);
+            }
+        }
+    }
+
+    private int transition(final int node, final char c) {
+        int current = node;
+        while (true) {
+            final int child = getChild(current, c);
+            if (child >= 0)
+                return child;
+            if (current == 0)
+                return 0;
+            current = failures[current];
+        }
+    }
+
+    private int getChild(final int node, final char c) {
+        final char[] nodeLabels = labels[node];
+        int low = 0;
+        int high = nodeLabels.length - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final char label = nodeLabels[middle];
+            if (label < c)
+                low = middle + 1;
+            else if (label > c)
+                high = middle - 1;
+            else
+                return children[node][middle];
+        }
+
+        return -1;
+    }
+
+    /**
+     * Replaces all the targets found in a String.
+     * @param content the String to be altered.
+     * @return a new String identical to <code>content</code> except where targets have been replaced, or
+     * <code>content</code> itself if it contains no target.
+     */
+    public String replace(final String content) {
+        final StringBuilder buf = replace(content, null, content.length() + 16);
+        if (buf == null)
+            return content;
+
+        return buf.toString();
+    }
+
+    /**
+     * Replaces all the targets found in a CharSequence and appends the result to a StringBuilder.
+     * @param content the CharSequence to be processed.
+     * @param buf the StringBuilder to append the result to.
+     */
+    public void replace(final CharSequence content, final StringBuilder buf) {
+        replace(content, buf, 0);
+    }
+
+    // buf is only created when the first target is found, so that nothing is copied if there is no target.
+    // The automaton only follows the text that starts at or after the first position that has not been decided
+    // yet. Matches are recorded by start position, in a ring buffer, until no longer target can start there: the
+    // characters between a replaced target and the current position therefore never have to be read again.
+    private StringBuilder replace(final CharSequence content, final StringBuilder buf, final int capacity) {
+        final int length = content.length();
+        final int[] pending = new int[maxDepth + 1];  // longest match node by start position, 0 if none
+        StringBuilder result = buf;
+        int copied = 0;
+        int undecided = 0;
+        int node = 0;
+
+        for (int index = 0; index < length; ) {
+            node = transition(node, content.charAt(index));
+            ++index;
+            for (int output = outputs[node]; output >= 0; output = outputs[failures[output]]) {
+                final int slot = (index - depths[output]) % pending.length;
+                if (pending[slot] == 0 || depths[output] > depths[pending[slot]])
+                    pending[slot] = output;
+            }
+
+            // no target can start before the text followed by the automaton and end after the current position
+            while (undecided < index - depths[node]) {
+                final int match = pending[undecided % pending.length];
+                if (match == 0) {
+                    ++undecided;
+                    continue;
+                }
+
+                if (result == null)
+                    result = new StringBuilder(capacity);
+                copied = appendReplacement(content, result, copied, undecided, match, pending);
+                undecided = copied;
+                while (index - depths[node] < undecided)
+                    node = failures[node];
+            }
+        }
+
+        while (undecided < length) {
+            final int match = pending[undecided % pending.length];
+            if (match == 0) {
+                ++undecided;
+                continue;
+            }
+
+            if (result == null)
+                result = new StringBuilder(capacity);
+            copied = appendReplacement(content, result, copied, undecided, match, pending);
+            undecided = copied;
+        }
+
+        if (result != null)
+            result.append(content, copied, length);
+        return result;
+    }
+
+    // returns the position following the replaced target, after discarding the matches recorded inside it
+    private int appendReplacement(
+            final CharSequence content,
+            final StringBuilder result,
+            final int copied,
+            final int start,
+            final int match,
+            final int[] pending)
+    {
+        result.append(content, copied, start);
+        result.append(replacements[matches[match]]);
+
+        final int end = start + depths[match];
+        for (int position = start; position < end; position++)
+            pending[position % pending.length] = 0;
+
+        return end;
+    }
+
+    private final String[] replacements;
+    private final char[][] labels;
+    private final int[][] children;
+    private final int[] depths;
+    private final int[] matches;
+    private final int[] failures;
+    private final int[] outputs;
+    private final int maxDepth;
+}
@@ -0,0 +1,147 @@
+package org.dbbeans.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * This class keeps compiled regular expressions, so that expressions used over and over again are compiled only
+ * once.
+ * <p>The cache holds at most <code>maxEntries</code> Patterns. When it is full, the least recently used Pattern is
+ * evicted and will be compiled again when needed. The number of hits and misses is recorded, to help choose an
+ * appropriate size.</p>
+ * <p>This class is thread safe. Lookups do not lock the cache: they only queue the access, and the queued accesses
+ * are applied to the usage order of the Patterns before a Pattern is added or evicted. Patterns are compiled
+ * outside of any lock, so a Pattern requested by several threads at once might be compiled more than once.</p>
+ * @see Strings#regexReplace(String, String, String)
+ */
+public class PatternCache {
+
+    /**
+     * Creates a new cache.
+     * @param maxEntries the maximum number of Patterns held by the cache.
+     */
+    public PatternCache(final int maxEntries) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("maxEntries < 1 / maxEntries = " + maxEntries);
+
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the compiled form of a regular expression, compiling it if it is not in the cache.
+     * @param regex the regular expression.
+     * @return the corresponding Pattern.
+     * @throws java.util.regex.PatternSyntaxException if the regular expression is invalid.
+     */
+    public Pattern get(final String regex) {
+        final Pattern cached = cache.get(regex);
+        if (cached != null) {
+            hitCount.incrementAndGet();
+            recordAccess(regex);
+            return cached;
+        }
+
+        missCount.incrementAndGet();
+        final Pattern pattern = Pattern.compile(regex);
+        lock.lock();
+        try {
+            applyAccesses();
+            usageOrder.put(regex, pattern);
+            cache.put(regex, pattern);
+            final Iterator<String> leastRecentlyUsed = usageOrder.keySet().iterator();
+            while (usageOrder.size() > maxEntries) {
+                cache.remove(leastRecentlyUsed.next());
+                leastRecentlyUsed.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return pattern;
+    }
+
+    /**
+     * Returns how many times a requested Pattern was found in the cache.
+     * @return the number of hits.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns how many times a requested Pattern was not found in the cache and had to be compiled.
+     * @return the number of misses.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the number of Patterns currently held in this cache.
+     * @return the number of Patterns in the cache.
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Removes all the Patterns from this cache and resets the hit and miss counts.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            applyAccesses();
+            usageOrder.clear();
+            cache.clear();
+            hitCount.set(0);
+            missCount.set(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // the queue is applied by whichever thread gets the lock, so that it does not grow while no Pattern is added
+    private void recordAccess(final String regex) {
+        accesses.add(regex);
+        if (queuedAccesses.incrementAndGet() >= MAX_QUEUED_ACCESSES && lock.tryLock()) {
+            try {
+                applyAccesses();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // must be called with the lock held. Only the accesses queued when it is called are applied, so that it cannot
+    // be kept busy by other threads.
+    private void applyAccesses() {
+        final int count = queuedAccesses.get();
+        for (int i = 0; i < count; i++) {
+            final String regex = accesses.poll();
+            if (regex == null)
+                return;
+            queuedAccesses.decrementAndGet();
+            usageOrder.get(regex);  // moves the regex to the most recently used end, if it is still cached
+        }
+    }
+
+    private final int maxEntries;
+    private final ConcurrentMap<String, Pattern> cache = new ConcurrentHashMap<String, Pattern>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // access ordered copy of the cache, guarded by the lock
+    private final LinkedHashMap<String, Pattern> usageOrder = new LinkedHashMap<String, Pattern>(16, 0.75f, true);
+    private final Queue<String> accesses = new ConcurrentLinkedQueue<String>();
+    private final AtomicInteger queuedAccesses = new AtomicInteger();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    private static final int MAX_QUEUED_ACCESSES = 64;
+}
@@ -0,0 +1,16 @@
+package org.dbbeans.util;
+
+/**
+ * Callback used by the functions of {@link Strings} that scan a CharSequence, to report the ranges they find
+ * instead of creating a substring for each one of them.
+ */
+public interface RangeVisitor {
+
+    /**
+     * Called for each range found, in order.
+     * @param content the CharSequence being scanned.
+     * @param start index of the first character of the range.
+     * @param end index following the last character of the range.
+     */
+    void visit(CharSequence content, int start, int end);
+}
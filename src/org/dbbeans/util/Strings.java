@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -109,13 +110,25 @@ public class Strings {
      * @return the int value represented by the String or 0 if the value cannot be extracted.
      */
     public static int getIntVal(final String string) {
-        int val = 0;
-        try {
-            val = Integer.valueOf(string);
-        } catch (final NumberFormatException nfex) {
-            // val = 0 !
-        }
-        return val;
+        if (string == null)
+            return 0;
+
+        return getIntVal(string, 0, string.length());
+    }
+
+    /**
+     * Transforms part of a CharSequence in an int value. The characters must follow the same syntax as for
+     * {@link Integer#parseInt(String)}. If they cannot be converted to an int, returns 0. The conversion is
+     * done in a single pass, without creating any object.
+     * @param content containing the value to be converted.
+     * @param offset index of the first character of the value.
+     * @param length number of characters of the value.
+     * @return the int value represented by the characters or 0 if the value cannot be extracted.
+     * @throws IndexOutOfBoundsException if the range is not inside <code>content</code>.
+     */
+    public static int getIntVal(final CharSequence content, final int offset, final int length) {
+        checkRange(content, offset, length);
+        return (int) parseInteger(content, offset, offset + length, Integer.MIN_VALUE, Integer.MAX_VALUE);
     }
 
     /**
@@ -124,13 +137,25 @@ public class Strings {
      * @return the long value represented by the String or 0 if the value cannot be extracted.
      */
     public static long getLongVal(final String string) {
-        long val = 0;
-        try {
-            val = Long.valueOf(string);
-        } catch (final NumberFormatException nfex) {
-            // val = 0 !
-        }
-        return val;
+        if (string == null)
+            return 0;
+
+        return getLongVal(string, 0, string.length());
+    }
+
+    /**
+     * Transforms part of a CharSequence in a long value. The characters must follow the same syntax as for
+     * {@link Long#parseLong(String)}. If they cannot be converted to a long, returns 0. The conversion is
+     * done in a single pass, without creating any object.
+     * @param content containing the value to be converted.
+     * @param offset index of the first character of the value.
+     * @param length number of characters of the value.
+     * @return the long value represented by the characters or 0 if the value cannot be extracted.
+     * @throws IndexOutOfBoundsException if the range is not inside <code>content</code>.
+     */
+    public static long getLongVal(final CharSequence content, final int offset, final int length) {
+        checkRange(content, offset, length);
+        return parseInteger(content, offset, offset + length, Long.MIN_VALUE, Long.MAX_VALUE);
     }
 
     /**
@@ -139,13 +164,26 @@ public class Strings {
      * @return the float value represented by the String or 0 if the value cannot be extracted.
      */
     public static float getFloatVal(final String string) {
-        float val = 0.0f;
-        try {
-            val = Float.valueOf(string);
-        } catch (final NumberFormatException nfex) {
-            // val = 0 !
-        }
-        return val;
+        if (string == null)
+            return 0.0f;
+
+        return getFloatVal(string, 0, string.length());
+    }
+
+    /**
+     * Transforms part of a CharSequence in a float value. The characters must follow the same syntax as for
+     * {@link Float#parseFloat(String)}, leading and trailing whitespace being ignored. If they cannot be converted
+     * to a float, returns 0. Invalid values are detected without creating any object, and most values with up to 7
+     * significant digits are converted without creating any object either.
+     * @param content containing the value to be converted.
+     * @param offset index of the first character of the value.
+     * @param length number of characters of the value.
+     * @return the float value represented by the characters or 0 if the value cannot be extracted.
+     * @throws IndexOutOfBoundsException if the range is not inside <code>content</code>.
+     */
+    public static float getFloatVal(final CharSequence content, final int offset, final int length) {
+        checkRange(content, offset, length);
+        return (float) parseDecimal(content, offset, offset + length, true);
     }
 
     /**
@@ -154,13 +192,221 @@ public class Strings {
      * @return the double value represented by the String or 0 if the value cannot be extracted.
      */
     public static double getDoubleVal(final String string) {
-        double val = 0.0d;
+        if (string == null)
+            return 0.0d;
+
+        return getDoubleVal(string, 0, string.length());
+    }
+
+    /**
+     * Transforms part of a CharSequence in a double value. The characters must follow the same syntax as for
+     * {@link Double#parseDouble(String)}, leading and trailing whitespace being ignored. If they cannot be
+     * converted to a double, returns 0. Invalid values are detected without creating any object, and most values
+     * with up to 15 significant digits are converted without creating any object either.
+     * @param content containing the value to be converted.
+     * @param offset index of the first character of the value.
+     * @param length number of characters of the value.
+     * @return the double value represented by the characters or 0 if the value cannot be extracted.
+     * @throws IndexOutOfBoundsException if the range is not inside <code>content</code>.
+     */
+    public static double getDoubleVal(final CharSequence content, final int offset, final int length) {
+        checkRange(content, offset, length);
+        return parseDecimal(content, offset, offset + length, false);
+    }
+
+    private static void checkRange(final CharSequence content, final int offset, final int length) {
+        if (offset < 0 || length < 0 || offset > content.length() - length)
+            throw new IndexOutOfBoundsException("offset = " + offset + ", length = " + length
+                    + ", content length = " + content.length());
+    }
+
+    // accumulates negatively, like Integer.parseInt, so that min can be reached without overflow
+    private static long parseInteger(
+            final CharSequence content,
+            final int start,
+            final int end,
+            final long min,
+            final long max)
+    {
+        if (start == end)
+            return 0;
+
+        int index = start;
+        boolean negative = false;
+        final char first = content.charAt(index);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++index == end)
+                return 0;
+        }
+
+        final long limit = negative ? min : -max;
+        final long multiplicationLimit = limit / 10;
+        long result = 0;
+        while (index < end) {
+            final char c = content.charAt(index++);
+            final int digit;
+            if (c >= '0' && c <= '9')
+                digit = c - '0';
+            else if (c < 0x80)
+                return 0;
+            else
+                digit = Character.digit(c, 10);  // as accepted by Integer.parseInt
+            if (digit < 0 || result < multiplicationLimit)
+                return 0;
+            result *= 10;
+            if (result < limit + digit)
+                return 0;
+            result -= digit;
+        }
+
+        return negative ? result : -result;
+    }
+
+    // validates the value in a single pass and converts it directly when the mantissa and the power of ten are
+    // both exactly representable, as the result of a single multiplication or division is then correctly rounded
+    private static double parseDecimal(
+            final CharSequence content,
+            final int offset,
+            final int limit,
+            final boolean toFloat)
+    {
+        int start = offset;
+        int end = limit;
+        while (start < end && content.charAt(start) <= ' ')
+            ++start;
+        while (end > start && content.charAt(end - 1) <= ' ')
+            --end;
+        if (start == end)
+            return 0;
+
+        int index = start;
+        boolean negative = false;
+        char c = content.charAt(index);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            if (++index == end)
+                return 0;
+            c = content.charAt(index);
+        }
+
+        if (c == 'N')
+            return matches(content, index, end, "NaN") ? Double.NaN : 0;
+        if (c == 'I') {
+            if (!matches(content, index, end, "Infinity"))
+                return 0;
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        if (c == '0' && index + 1 < end && (content.charAt(index + 1) == 'x' || content.charAt(index + 1) == 'X'))
+            return parseHexadecimal(content.subSequence(start, end).toString(), toFloat);
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int digitCount = 0;
+        int exponent = 0;
+        boolean inFraction = false;
+        while (index < end) {
+            c = content.charAt(index);
+            if (c >= '0' && c <= '9') {
+                ++digitCount;
+                if (mantissa != 0 || c != '0')
+                    ++significantDigits;
+                if (significantDigits <= MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (inFraction)
+                        --exponent;
+                }
+            } else if (c == '.' && !inFraction) {
+                inFraction = true;
+            } else {
+                break;
+            }
+            ++index;
+        }
+        if (digitCount == 0)
+            return 0;
+
+        if (index < end && (c == 'e' || c == 'E')) {
+            if (++index == end)
+                return 0;
+            c = content.charAt(index);
+            boolean negativeExponent = false;
+            if (c == '-' || c == '+') {
+                negativeExponent = c == '-';
+                if (++index == end)
+                    return 0;
+            }
+            int explicitExponent = 0;
+            int exponentDigits = 0;
+            while (index < end) {
+                c = content.charAt(index);
+                if (c < '0' || c > '9')
+                    break;
+                if (explicitExponent < MAX_EXPONENT)
+                    explicitExponent = explicitExponent * 10 + (c - '0');
+                ++exponentDigits;
+                ++index;
+            }
+            if (exponentDigits == 0)
+                return 0;
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (index < end && (c == 'f' || c == 'F' || c == 'd' || c == 'D'))
+            ++index;
+        if (index != end)
+            return 0;
+
+        if (mantissa == 0)
+            return negative ? -0.0d : 0.0d;
+
+        if (significantDigits <= MAX_MANTISSA_DIGITS) {
+            if (toFloat) {
+                if (mantissa <= MAX_EXACT_FLOAT_MANTISSA && Math.abs(exponent) < FLOAT_POWERS_OF_TEN.length) {
+                    float val = mantissa;
+                    if (exponent < 0)
+                        val /= FLOAT_POWERS_OF_TEN[-exponent];
+                    else
+                        val *= FLOAT_POWERS_OF_TEN[exponent];
+                    return negative ? -val : val;
+                }
+            } else {
+                if (mantissa <= MAX_EXACT_DOUBLE_MANTISSA && Math.abs(exponent) < DOUBLE_POWERS_OF_TEN.length) {
+                    double val = mantissa;
+                    if (exponent < 0)
+                        val /= DOUBLE_POWERS_OF_TEN[-exponent];
+                    else
+                        val *= DOUBLE_POWERS_OF_TEN[exponent];
+                    return negative ? -val : val;
+                }
+            }
+        }
+
+        // the value is known to be valid
+        final String value = content.subSequence(start, end).toString();
+        if (toFloat)
+            return Float.parseFloat(value);
+        return Double.parseDouble(value);
+    }
+
+    private static boolean matches(final CharSequence content, final int start, final int end, final String word) {
+        if (end - start != word.length())
+            return false;
+        for (int i = 0; i < word.length(); i++)
+            if (content.charAt(start + i) != word.charAt(i))
+                return false;
+        return true;
+    }
+
+    // hexadecimal floating point values are rare enough not to deserve their own parser
+    private static double parseHexadecimal(final String value, final boolean toFloat) {
         try {
-            val = Double.valueOf(string);
+            if (toFloat)
+                return Float.parseFloat(value);
+            return Double.parseDouble(value);
         } catch (final NumberFormatException nfex) {
-            // val = 0 !
+            return 0;
         }
-        return val;
     }
 
     /**
@@ -170,17 +416,83 @@ public class Strings {
      * @return the number of occurrences of <code>substring</code> in <code>string</code>.
      */
     public static int occurrenceCount(final String string, final String substring) {
+        return occurrenceCount(string, 0, string.length(), substring);
+    }
+
+    /**
+     * Count how many time a certain substring appears inside part of a CharSequence. Overlapping occurrences are
+     * counted, like with {@link #occurrenceCount(String, String)}.
+     * @param content to be parsed for occurrences of the substring.
+     * @param offset index of the first character to be parsed.
+     * @param length number of characters to be parsed.
+     * @param substring which occurrences are to be counted.
+     * @return the number of occurrences of <code>substring</code> in the specified part of <code>content</code>.
+     * @throws IndexOutOfBoundsException if the range is not inside <code>content</code>.
+     */
+    public static int occurrenceCount(
+            final CharSequence content,
+            final int offset,
+            final int length,
+            final CharSequence substring)
+    {
+        checkRange(content, offset, length);
+        final int end = offset + length;
         int count = 0;
-        int index = 0;
-        while (string.indexOf(substring, index) != -1) {
+        int index = indexOf(content, substring, offset, end);
+        while (index != -1) {
             count++;
-            index = string.indexOf(substring, index) + 1;
-            if (index > string.length())
-                break;
+            index = indexOf(content, substring, index + 1, end);
         }
         return count;
     }
 
+    /**
+     * Reports the range of each occurrence of a substring inside part of a CharSequence. Overlapping occurrences
+     * are reported, like with {@link #occurrenceCount(String, String)}.
+     * @param content to be parsed for occurrences of the substring.
+     * @param offset index of the first character to be parsed.
+     * @param length number of characters to be parsed.
+     * @param substring which occurrences are to be reported.
+     * @param visitor to be called for each occurrence.
+     * @throws IndexOutOfBoundsException if the range is not inside <code>content</code>.
+     */
+    public static void visitOccurrences(
+            final CharSequence content,
+            final int offset,
+            final int length,
+            final CharSequence substring,
+            final RangeVisitor visitor)
+    {
+        checkRange(content, offset, length);
+        final int end = offset + length;
+        int index = indexOf(content, substring, offset, end);
+        while (index != -1) {
+            visitor.visit(content, index, index + substring.length());
+            index = indexOf(content, substring, index + 1, end);
+        }
+    }
+
+    // returns the index of the first occurrence of target starting at or after from and ending at or before end
+    private static int indexOf(final CharSequence content, final CharSequence target, final int from, final int end) {
+        final int targetLength = target.length();
+        if (targetLength == 0)
+            return from <= end ? from : -1;
+
+        final char first = target.charAt(0);
+        final int last = end - targetLength;
+        for (int i = from; i <= last; i++) {
+            if (content.charAt(i) != first)
+                continue;
+            int j = 1;
+            while (j < targetLength && content.charAt(i + j) == target.charAt(j))
+                j++;
+            if (j == targetLength)
+                return i;
+        }
+
+        return -1;
+    }
+
     /**
      * Returns all the letters in a given String as an array of Strings, each String representing a letter.
      * The concept of letter is used loosely here to refer to code points, but represented as Strings and not ints.
@@ -188,10 +500,24 @@ public class Strings {
      * @return list of <code>string</code> letters.
      */
     public static List<String> toLetterList(final String string) {
-        List<String> letterList = new ArrayList<String>();
+        return toLetterList(string, 0, string.length());
+    }
 
-        for (int i = 0; i < string.length(); i++)
-            letterList.add(string.substring(i, i + 1));
+    /**
+     * Returns all the letters in part of a CharSequence as an array of Strings, each String representing a letter.
+     * @param content which letters should be enumerated.
+     * @param offset index of the first letter.
+     * @param length number of letters.
+     * @return list of letters in the specified part of <code>content</code>.
+     * @throws IndexOutOfBoundsException if the range is not inside <code>content</code>.
+     * @see #toLetterList(String)
+     */
+    public static List<String> toLetterList(final CharSequence content, final int offset, final int length) {
+        checkRange(content, offset, length);
+        final List<String> letterList = new ArrayList<String>(length);
+
+        for (int i = offset; i < offset + length; i++)
+            letterList.add(String.valueOf(content.charAt(i)));
 
         return letterList;
     }
@@ -207,28 +533,60 @@ public class Strings {
      * apply if start and end delimiter are identical).
      */
     public static List<String> extractBetweenDelimiters(final String string, final String startDelimiter, final String endDelimiter) {
-        final List<String> results = new ArrayList<String>();
-
-        int index = 0;
-        while (index < string.length()) {
-            final int startIdx = string.indexOf(startDelimiter, index);
-            if (startIdx == -1)
-                break;
-
-            final int endIdx = string.indexOf(endDelimiter, startIdx + startDelimiter.length());
-            if (endIdx == -1)
-                throw new IllegalArgumentException("Missing corresponding end delimiter in String.");
-
-            final String result = string.substring(startIdx + startDelimiter.length(), endIdx);
-            if (result.contains(startDelimiter))
-                throw new IllegalArgumentException("Nested delimiters not allowed.");
-            results.add(result);
-            index = endIdx + endDelimiter.length();
-        }
+        return extractBetweenDelimiters(string, 0, string.length(), startDelimiter, endDelimiter);
+    }
 
+    /**
+     * Scan part of a CharSequence for a pair of delimiters and returns all occurences of substrings between these
+     * delimiters.
+     * @param content to be scanned.
+     * @param offset index of the first character to be scanned.
+     * @param length number of characters to be scanned.
+     * @param startDelimiter, can be identical to endDelimiter or different.
+     * @param endDelimiter, can be identical to startDelimiter of different.
+     * @return a list of the substrings that can be found in the specified part of <code>content</code> between the
+     * specified delimiters.
+     * @throws IllegalArgumentException if the start delimiter is not closed or if delimiters are nested,
+     * see {@link #extractBetweenDelimiters(String, String, String)}.
+     * @throws IndexOutOfBoundsException if the range is not inside <code>content</code>.
+     */
+    public static List<String> extractBetweenDelimiters(
+            final CharSequence content,
+            final int offset,
+            final int length,
+            final String startDelimiter,
+            final String endDelimiter)
+    {
+        final List<String> results = new ArrayList<String>();
+        visitBetweenDelimiters(content, offset, length, startDelimiter, endDelimiter, false, new SubstringCollector(results));
         return results;
     }
 
+    /**
+     * Scan part of a CharSequence for a pair of delimiters and reports the range of each substring found between
+     * these delimiters. The delimiters themselves are not included in the ranges.
+     * @param content to be scanned.
+     * @param offset index of the first character to be scanned.
+     * @param length number of characters to be scanned.
+     * @param startDelimiter, can be identical to endDelimiter or different.
+     * @param endDelimiter, can be identical to startDelimiter of different.
+     * @param visitor to be called for each substring found.
+     * @throws IllegalArgumentException if the start delimiter is not closed or if delimiters are nested,
+     * see {@link #extractBetweenDelimiters(String, String, String)}. The ranges preceding the problem have
+     * already been reported when the exception is thrown.
+     * @throws IndexOutOfBoundsException if the range is not inside <code>content</code>.
+     */
+    public static void visitBetweenDelimiters(
+            final CharSequence content,
+            final int offset,
+            final int length,
+            final String startDelimiter,
+            final String endDelimiter,
+            final RangeVisitor visitor)
+    {
+        visitBetweenDelimiters(content, offset, length, startDelimiter, endDelimiter, false, visitor);
+    }
+
     /**
      * Scan a String for a pair of delimiters and returns all occurences of substrings between these delimiters.
      * This functions works like {@link #extractBetweenDelimiters(String, String, String)}, but never throws
@@ -247,45 +605,137 @@ public class Strings {
             final String endDelimiter)
     {
         final List<String> results = new ArrayList<String>();
+        visitBetweenDelimiters(string, 0, string.length(), startDelimiter, endDelimiter, true, new SubstringCollector(results));
+        return results;
+    }
+
+    /**
+     * Scan part of a CharSequence for a pair of delimiters and reports the range of each substring found between
+     * these delimiters. Like {@link #lenientExtractBetweenDelimiters(String, String, String)}, unclosed and nested
+     * delimiters are ignored instead of causing an exception.
+     * @param content to be scanned.
+     * @param offset index of the first character to be scanned.
+     * @param length number of characters to be scanned.
+     * @param startDelimiter, can be identical to endDelimiter or different.
+     * @param endDelimiter, can be identical to startDelimiter of different.
+     * @param visitor to be called for each substring found.
+     * @throws IndexOutOfBoundsException if the range is not inside <code>content</code>.
+     * @see #visitBetweenDelimiters(CharSequence, int, int, String, String, RangeVisitor)
+     */
+    public static void lenientVisitBetweenDelimiters(
+            final CharSequence content,
+            final int offset,
+            final int length,
+            final String startDelimiter,
+            final String endDelimiter,
+            final RangeVisitor visitor)
+    {
+        visitBetweenDelimiters(content, offset, length, startDelimiter, endDelimiter, true, visitor);
+    }
+
+    private static void visitBetweenDelimiters(
+            final CharSequence content,
+            final int offset,
+            final int length,
+            final String startDelimiter,
+            final String endDelimiter,
+            final boolean lenient,
+            final RangeVisitor visitor)
+    {
+        checkRange(content, offset, length);
+        final int end = offset + length;
 
-        int index = 0;
-        while (index < string.length()) {
-            final int startIdx = string.indexOf(startDelimiter, index);
+        int index = offset;
+        while (index < end) {
+            final int startIdx = indexOf(content, startDelimiter, index, end);
             if (startIdx == -1)
                 break;
 
-            final int endIdx = string.indexOf(endDelimiter, startIdx + startDelimiter.length());
-            if (endIdx == -1)
-                break;
+            final int resultStart = startIdx + startDelimiter.length();
+            final int endIdx = indexOf(content, endDelimiter, resultStart, end);
+            if (endIdx == -1) {
+                if (lenient)
+                    break;
+                throw new IllegalArgumentException("Missing corresponding end delimiter in String.");
+            }
 
-            final String result = string.substring(startIdx + startDelimiter.length(), endIdx);
             index = endIdx + endDelimiter.length();
-            if (result.contains(startDelimiter))
-                continue;
-            results.add(result);
+            if (indexOf(content, startDelimiter, resultStart, endIdx) != -1) {
+                if (lenient)
+                    continue;
+                throw new IllegalArgumentException("Nested delimiters not allowed.");
+            }
+            visitor.visit(content, resultStart, endIdx);
         }
+    }
 
-        return results;
+    private static class SubstringCollector implements RangeVisitor {
+
+        SubstringCollector(final List<String> substrings) {
+            this.substrings = substrings;
+        }
+
+        @Override
+        public void visit(final CharSequence content, final int start, final int end) {
+            substrings.add(content.subSequence(start, end).toString());
+        }
+
+        private final List<String> substrings;
+    }
+
+    /**
+     * Replace all accented characters in a String with the unaccented equivalent, using the lists of characters
+     * defined in {@link CharacterLists}. Ligatures and the German sharp s are expanded ('&#198;' becomes "AE",
+     * '&#223;' becomes "ss", etc.). The String is processed in a single pass, using a precompiled translation table.
+     * @param string to be unaccented.
+     * @return unaccented version of string passed as a parameter, or string itself if it contains no accented
+     * character.
+     * @see CharacterTranslator
+     */
+    public static String getUnaccentedString(final String string) {
+        return DefaultUnaccenter.TRANSLATOR.translate(string);
     }
 
     /**
      * Replace all accented characters in a String with the unaccented equivalent. As the equivalent is language
      * dependent, the list of accented characters and their corresponding unaccented characters must be provided
-     * in the form of two Strings of equal length. This function does not support (yet) the substitution of one
-     * accented character by two or more characters, as it might happen in German for example.
+     * in the form of two Strings of equal length. This function does not support the substitution of one
+     * accented character by two or more characters, as it might happen in German for example: use a
+     * {@link CharacterTranslator} for that.
      * @param string to be unaccented.
      * @param accentedCharacters list of accented characters.
      * @param unaccentedCharacters list of corresponding unaccented characters.
      * @return unaccented version of string passed as a parameter.
      * @throws java.lang.IllegalArgumentException if the two lists of characters are not of equal length.
+     * @see #getUnaccentedString(String)
      */
     public static String getUnaccentedString(final String string, final String accentedCharacters, final String unaccentedCharacters) {
-        if (accentedCharacters.length() != unaccentedCharacters.length())
-            throw new IllegalArgumentException("length mismatch");
-        String result = string;
-        for (int i = 0; i < accentedCharacters.length(); i++)
-            result = result.replaceAll(accentedCharacters.substring(i, i+1), unaccentedCharacters.substring(i, i+1));
-        return result;
+        if (accentedCharacters.equals(CharacterLists.ACCENTED_CHARACTER_STRING)
+                && unaccentedCharacters.equals(CharacterLists.UNACCENTED_CHARACTER_STRING))
+            return DefaultUnaccenter.SIMPLE_TRANSLATOR.translate(string);
+
+        return new CharacterTranslator(accentedCharacters, unaccentedCharacters).translate(string);
+    }
+
+    // translators are only created when first needed, as CharacterLists itself uses Strings during initialization
+    private static class DefaultUnaccenter {
+        static final CharacterTranslator SIMPLE_TRANSLATOR = new CharacterTranslator(
+                CharacterLists.ACCENTED_CHARACTER_STRING,
+                CharacterLists.UNACCENTED_CHARACTER_STRING);
+
+        static final CharacterTranslator TRANSLATOR;
+        static {
+            final Map<Character, String> expansions = new HashMap<Character, String>();
+            expansions.put('\u00C6', "AE");
+            expansions.put('\u00E6', "ae");
+            expansions.put('\u0152', "OE");
+            expansions.put('\u0153', "oe");
+            expansions.put('\u00DF', "ss");
+            TRANSLATOR = new CharacterTranslator(
+                    CharacterLists.ACCENTED_CHARACTER_STRING,
+                    CharacterLists.UNACCENTED_CHARACTER_STRING,
+                    expansions);
+        }
     }
 
     /**
@@ -305,7 +755,10 @@ public class Strings {
     }
 
     /**
-     * Replace parts of a String by other Strings.
+     * Replace parts of a String by other Strings. The String is processed in a single pass: at each position, the
+     * longest part starting there is replaced, and replacement text is never replaced again. The replacers compiled
+     * for the 64 most recently used Maps are cached. To apply the same replacements to many Strings, a
+     * {@link MultiPatternReplacer} can also be created once and reused.
      * @param content the String to be altered.
      * @param replacements a Map of parts to be replaced with their replacement.
      * @return a new String identical to <code>content</code> except where parts of it have been replaced according
@@ -314,10 +767,25 @@ public class Strings {
      * @see Strings#regexReplaceMany(String, Map)
      */
     public static String replaceMany(final String content, Map<String, String> replacements) {
-        String result = content;
-        for (String target: replacements.keySet())
-            result = replace(result, target, replacements.get(target));
-        return result;
+        if (replacements.isEmpty())
+            return content;
+
+        return getReplacer(replacements).replace(content);
+    }
+
+    // the cache is keyed by a copy of the Map, so that a Map modified after having been used is compiled again
+    private static MultiPatternReplacer getReplacer(final Map<String, String> replacements) {
+        synchronized (REPLACER_CACHE) {
+            final MultiPatternReplacer replacer = REPLACER_CACHE.get(replacements);
+            if (replacer != null)
+                return replacer;
+        }
+
+        final MultiPatternReplacer replacer = new MultiPatternReplacer(replacements);
+        synchronized (REPLACER_CACHE) {
+            REPLACER_CACHE.put(new HashMap<String, String>(replacements), replacer);
+        }
+        return replacer;
     }
 
     /**
@@ -329,9 +797,10 @@ public class Strings {
      * <code>replacement</code>.
      * @see Strings#replace(String, String, String)
      * @see Strings#regexReplaceMany(String, java.util.Map)
+     * @see Strings#getRegexCache()
      */
     public static String regexReplace(final String content, final String regex, final String replacement) {
-        return content.replaceAll(regex, replacement);
+        return REGEX_CACHE.get(regex).matcher(content).replaceAll(replacement);
     }
 
     /**
@@ -345,11 +814,21 @@ public class Strings {
      */
     public static String regexReplaceMany(final String content, Map<String, String> replacements) {
         String result = content;
-        for (String target: replacements.keySet())
-            result = regexReplace(result, target, replacements.get(target));
+        for (Map.Entry<String, String> entry: replacements.entrySet())
+            result = regexReplace(result, entry.getKey(), entry.getValue());
         return result;
     }
 
+    /**
+     * Returns the cache of compiled regular expressions used by {@link #regexReplace(String, String, String)} and
+     * {@link #regexReplaceMany(String, Map)}. It holds the 256 most recently used expressions and can be queried
+     * for hit and miss statistics.
+     * @return the shared cache of compiled regular expressions.
+     */
+    public static PatternCache getRegexCache() {
+        return REGEX_CACHE;
+    }
+
     /**
      * Checks if a String is quoted.
      * <br/>This function checks if the String starts and ends with a quote character. It also checks if any quote
@@ -706,11 +1185,25 @@ public class Strings {
      * @return String with replaced parameters
      * @throws NullPointerException if the parameter map does not contain a required value or if this value
      * is null.
+     * @see #getParameterReplacer(Map)
      */
     public static String replaceWithParameters(final String target, final Map<String, Object> parameters) {
         return replaceMany(target, getParameterReplacementMap(parameters));
     }
 
+    /**
+     * Compiles a name/value map into a replacer that substitutes parameters in the ${parameter-name} format, like
+     * {@link #replaceWithParameters(String, Map)}. The replacer can be kept to process many Strings with the same
+     * parameters.
+     * @param parameters a Map of String parameter names to Object. The parameter names should not contain
+     *                   the ${} characters
+     * @return a MultiPatternReplacer for the parameters.
+     * @throws NullPointerException if one of the values is null.
+     */
+    public static MultiPatternReplacer getParameterReplacer(final Map<String, Object> parameters) {
+        return new MultiPatternReplacer(getParameterReplacementMap(parameters));
+    }
+
     private static Map<String, String> getParameterReplacementMap(final Map<String, Object> parameters) {
         final Map<String, String> replacementMap = new HashMap<String, String>();
 
@@ -753,27 +1246,83 @@ public class Strings {
      * @return a List of lines
      */
     public static List<String> splitIntoLines(final String text, final int maxLength) {
+        return splitIntoLines(text, 0, text.length(), maxLength);
+    }
+
+    /**
+     * Splits part of a CharSequence in a List of lines, like {@link #splitIntoLines(String, int)}.
+     * @param content to be decomposed in lines
+     * @param offset index of the first character to be decomposed
+     * @param length number of characters to be decomposed
+     * @param maxLength a line can reach
+     * @return a List of lines
+     * @throws IndexOutOfBoundsException if the range is not inside <code>content</code>.
+     */
+    public static List<String> splitIntoLines(
+            final CharSequence content,
+            final int offset,
+            final int length,
+            final int maxLength)
+    {
+        final List<String> lines = new ArrayList<String>();
+        visitLines(content, offset, length, maxLength, new RangeVisitor() {
+            @Override
+            public void visit(final CharSequence content, final int start, final int end) {
+                lines.add(putOnOneLine(content.subSequence(start, end).toString()));
+            }
+        });
+
+        return lines;
+    }
+
+    /**
+     * Splits part of a CharSequence in lines, like {@link #splitIntoLines(String, int)}, and reports the range of
+     * each line instead of creating a List. The newline characters ending paragraphs and the spaces on which lines
+     * are split are not included in the ranges, but carriage returns are not removed: a paragraph ending with
+     * "\r\n" is reported with its trailing carriage return.
+     * @param content to be decomposed in lines
+     * @param offset index of the first character to be decomposed
+     * @param length number of characters to be decomposed
+     * @param maxLength a line can reach
+     * @param visitor to be called for each line
+     * @throws IllegalStateException if a word is longer than <code>maxLength</code>. The lines preceding the word
+     * have already been reported when the exception is thrown.
+     * @throws IndexOutOfBoundsException if the range is not inside <code>content</code>.
+     */
+    public static void visitLines(
+            final CharSequence content,
+            final int offset,
+            final int length,
+            final int maxLength,
+            final RangeVisitor visitor)
+    {
         if (maxLength < 10)
             throw new IllegalArgumentException("Max length must be at least 10 characters");
-
-        String[] paragraphs = text.split("\\\n");
-        List<String> lines = new ArrayList<String>();
-        for (String paragraph: paragraphs) {
-            StringBuilder buf = new StringBuilder(paragraph);
-            while (buf.length() > maxLength) {
-                String workingString = buf.substring(0, maxLength);
-                int lastSpace = workingString.lastIndexOf(" ");
-                if (lastSpace == -1)
+        checkRange(content, offset, length);
+
+        final int end = offset + length;
+        int paragraphStart = offset;
+        while (paragraphStart < end) {
+            int paragraphEnd = paragraphStart;
+            while (paragraphEnd < end && content.charAt(paragraphEnd) != '\n')
+                paragraphEnd++;
+
+            int lineStart = paragraphStart;
+            while (paragraphEnd - lineStart > maxLength) {
+                int lastSpace = lineStart + maxLength - 1;
+                while (lastSpace >= lineStart && content.charAt(lastSpace) != ' ')
+                    lastSpace--;
+                if (lastSpace < lineStart)
                     throw new IllegalStateException("Could not split line on word boundary. Found a word at least "
                             + maxLength + " characters long.");
-                lines.add(putOnOneLine(buf.substring(0, lastSpace)));
-                buf.delete(0, lastSpace + 1);
+                visitor.visit(content, lineStart, lastSpace);
+                lineStart = lastSpace + 1;
             }
-            if (buf.length() > 0)
-                lines.add(putOnOneLine(buf.toString()));
-        }
+            if (lineStart < paragraphEnd)
+                visitor.visit(content, lineStart, paragraphEnd);
 
-        return lines;
+            paragraphStart = paragraphEnd + 1;
+        }
     }
 
     public static String hideZeros(int val) {
@@ -800,4 +1349,37 @@ public class Strings {
     public static String passwordify(String password) {
         return repeatString("*", password.length());
     }
+
+    // access ordered map that evicts the least recently used replacer
+    private static class ReplacerCache extends LinkedHashMap<Map<String, String>, MultiPatternReplacer> {
+
+        ReplacerCache(final int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Map<String, String>, MultiPatternReplacer> eldest) {
+            return size() > maxEntries;
+        }
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+    }
+
+    private static final PatternCache REGEX_CACHE = new PatternCache(256);
+    private static final ReplacerCache REPLACER_CACHE = new ReplacerCache(64);
+
+    private static final int MAX_MANTISSA_DIGITS = 18;
+    private static final int MAX_EXPONENT = 100000;
+    private static final long MAX_EXACT_FLOAT_MANTISSA = 1L << 24;
+    private static final long MAX_EXACT_DOUBLE_MANTISSA = 1L << 53;
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
 }
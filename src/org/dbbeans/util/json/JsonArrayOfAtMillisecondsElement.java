@@ -1,14 +1,17 @@
 package org.dbbeans.util.json;
 
+import java.io.IOException;
+
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
- * This class represents a json element with an array of milliseconds value.
+ * This class represents a json element with an array of milliseconds value. The values are stored in a primitive
+ * array, without boxing, and are written digit by digit.
  */
 public class JsonArrayOfAtMillisecondsElement extends JsonArrayOfStringsElement {
 
@@ -18,7 +21,37 @@ public class JsonArrayOfAtMillisecondsElement extends JsonArrayOfStringsElement
      * @param values the array value of the element.
      */
 	public JsonArrayOfAtMillisecondsElement(final String name, final List<Long> values) {
-		super(name, getStringList(values));
+		super(name);
+		this.values = new long[values.size()];
+		int index = 0;
+		for (long val: values)
+			this.values[index++] = val;
+	}
+
+    /**
+     * Creates the json element and gives it a name and value. The array is copied.
+     * @param name of the element.
+     * @param values the array value of the element, in milliseconds.
+     * @see #wrap(String, long[])
+     */
+	public JsonArrayOfAtMillisecondsElement(final String name, final long[] values) {
+		this(name, values, true);
+	}
+
+	private JsonArrayOfAtMillisecondsElement(final String name, final long[] values, final boolean copy) {
+		super(name);
+		this.values = copy ? Arrays.copyOf(values, values.length) : values;
+	}
+
+    /**
+     * Creates the json element without copying the array of values. The array should therefore not be modified
+     * until the element has been printed.
+     * @param name of the element.
+     * @param values of the element, in milliseconds.
+     * @return a json element that wraps the array of values.
+     */
+	public static JsonArrayOfAtMillisecondsElement wrap(final String name, final long[] values) {
+		return new JsonArrayOfAtMillisecondsElement(name, values, false);
 	}
 
     /**
@@ -27,10 +60,7 @@ public class JsonArrayOfAtMillisecondsElement extends JsonArrayOfStringsElement
      * @param dates of the element.
      */
 	public static JsonArrayOfAtMillisecondsElement createElementFromDates(final String name, final List<Date> dates) {
-		final List<Long> millis = new ArrayList<Long>(dates.size());
-		for (Date date: dates)
-			millis.add(date.getTime());
-		return new JsonArrayOfAtMillisecondsElement(name, millis);
+		return new JsonArrayOfAtMillisecondsElement(name, getMilliseconds(dates), false);
 	}
 
     /**
@@ -39,10 +69,7 @@ public class JsonArrayOfAtMillisecondsElement extends JsonArrayOfStringsElement
      * @param times of the element.
      */
 	public static JsonArrayOfAtMillisecondsElement createElementFromTimes(final String name, final List<Time> times) {
-		final List<Long> millis = new ArrayList<Long>(times.size());
-		for (Time time: times)
-			millis.add(time.getTime());
-		return new JsonArrayOfAtMillisecondsElement(name, millis);
+		return new JsonArrayOfAtMillisecondsElement(name, getMilliseconds(times), false);
 	}
 
     /**
@@ -51,19 +78,57 @@ public class JsonArrayOfAtMillisecondsElement extends JsonArrayOfStringsElement
      * @param timestamps of the element.
      */
     public static JsonArrayOfAtMillisecondsElement createElementFromTimestamps(final String name, final List<Timestamp> timestamps) {
-        final List<Long> milis = new ArrayList<Long>(timestamps.size());
-        for (Timestamp timestamp: timestamps)
-            milis.add(timestamp.getTime());
-        return new JsonArrayOfAtMillisecondsElement(name, milis);
+        return new JsonArrayOfAtMillisecondsElement(name, getMilliseconds(timestamps), false);
     }
-	
-	private static List<String> getStringList(final List<Long> values) {
-		final List<String> strings = new ArrayList<String>(values.size());
-		
+
+	private static long[] getMilliseconds(final List<? extends java.util.Date> dates) {
+		final long[] millis = new long[dates.size()];
+		int index = 0;
+		for (java.util.Date date: dates)
+			millis[index++] = date.getTime();
+
+		return millis;
+	}
+
+    /**
+     * Writes this JsonElement. The milliseconds values are written digit by digit, without creating intermediate
+     * Strings.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
+     * @param indentLevel the indentation level (how many tabs).
+     * @param isLast must be true if this element is the last one in the json object, to prevent this function
+     *               to print an extra comma.
+     * @throws IOException if out throws an IOException.
+     */
+	@Override
+	public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast)
+			throws IOException
+	{
+		writeName(out, format, indentLevel);
+		format.writeArrayStart(out);
+		final int max = values.length;
+		for (int i = 0; i < max; i++) {
+			if (i > 0)
+				format.writeArraySeparator(out);
+			out.append("\"@");
+			writeLong(out, values[i]);
+			out.append("@\"");
+		}
+		format.writeArrayEnd(out);
+		writeEnd(out, format, isLast);
+	}
+
+    /**
+     * Writes the value of this JsonElement in CBOR, as an array of epoch based date/time values.
+     * @param out the JsonCborOutput to write to.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     */
+	@Override
+	void writeCborValue(final JsonCborOutput out) throws IOException {
+		out.writeArrayHeader(values.length);
 		for (long val: values)
-			strings.add(JsonAtMillisecondsElement.calcVal(val));
-		
-		return strings;
+			out.writeMilliseconds(val);
 	}
-}
 
+	private final long[] values;
+}
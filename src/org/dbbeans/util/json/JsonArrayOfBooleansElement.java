@@ -1,14 +1,17 @@
 package org.dbbeans.util.json;
 
-import java.util.ArrayList;
+import java.io.IOException;
+
+import java.util.Arrays;
 import java.util.List;
 
 /**
- * This class represents a json element with an array of booleans value.
+ * This class represents a json element with an array of booleans value. The values are stored in a primitive array,
+ * without boxing.
  */
 public class JsonArrayOfBooleansElement extends JsonElement {
 
-	private final List<Boolean> values;
+	private final boolean[] values;
 
     /**
      * Creates the json element and gives it a name and value.
@@ -17,41 +20,73 @@ public class JsonArrayOfBooleansElement extends JsonElement {
      */
 	public JsonArrayOfBooleansElement(final String name, final List<Boolean> values) {
 		super(name);
-		this.values = new ArrayList<Boolean>(values);
+		this.values = new boolean[values.size()];
+		int index = 0;
+		for (boolean val: values)
+			this.values[index++] = val;
+	}
+
+    /**
+     * Creates the json element and gives it a name and value. The array is copied.
+     * @param name of the element.
+     * @param values the array value of the element.
+     * @see #wrap(String, boolean[])
+     */
+	public JsonArrayOfBooleansElement(final String name, final boolean[] values) {
+		this(name, values, true);
+	}
+
+	private JsonArrayOfBooleansElement(final String name, final boolean[] values, final boolean copy) {
+		super(name);
+		this.values = copy ? Arrays.copyOf(values, values.length) : values;
+	}
+
+    /**
+     * Creates the json element without copying the array of values. The array should therefore not be modified
+     * until the element has been printed.
+     * @param name of the element.
+     * @param values of the element.
+     * @return a json element that wraps the array of values.
+     */
+	public static JsonArrayOfBooleansElement wrap(final String name, final boolean[] values) {
+		return new JsonArrayOfBooleansElement(name, values, false);
 	}
 
 	/**
-	 * Prints this JsonElement. This function is usually called from the {@link JsonObject#print(int, boolean)}
-	 * function of the enclosing JsonObject.
+	 * Writes this JsonElement. This function is usually called from the
+	 * {@link JsonObject#writeTo(Appendable, JsonFormat, int, boolean)} function of the enclosing JsonObject.
+	 * @param out the Appendable to write to.
+	 * @param format the JsonFormat to use.
 	 * @param indentLevel the indentation level (how many tabs).
 	 * @param isLast must be true if this element is the last one in the json object, to prevent this function
 	 *               to print an extra comma.
-	 * @return a representation of this JsonElement.
+	 * @throws IOException if out throws an IOException.
 	 */
 	@Override
-	public String print(final int indentLevel, final boolean isLast) {
-		final String tabs = getTabs(indentLevel);
-
-		final StringBuilder buf = new StringBuilder();
-
-		buf.append(tabs);
-		buf.append("\"");
-		buf.append(getName());
-		buf.append("\" : [ ");
-		int index = 0;
-		final int max = values.size();
-		for (boolean val: values) {
-			index++;
-			buf.append(val);
-			if (index != max)
-				buf.append(", ");
+	public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast)
+			throws IOException
+	{
+		writeName(out, format, indentLevel);
+		format.writeArrayStart(out);
+		final int max = values.length;
+		for (int i = 0; i < max; i++) {
+			if (i > 0)
+				format.writeArraySeparator(out);
+			out.append(values[i] ? "true" : "false");
 		}
-		buf.append(" ]");
-		if (!isLast)
-			buf.append(",");
-		buf.append("\n");
+		format.writeArrayEnd(out);
+		writeEnd(out, format, isLast);
+	}
 
-		return buf.toString();
+    /**
+     * Writes the value of this JsonElement in CBOR.
+     * @param out the JsonCborOutput to write to.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     */
+	@Override
+	void writeCborValue(final JsonCborOutput out) throws IOException {
+		out.writeArrayHeader(values.length);
+		for (boolean val: values)
+			out.writeBoolean(val);
 	}
 }
-
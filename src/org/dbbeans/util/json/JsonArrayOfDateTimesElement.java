@@ -1,5 +1,7 @@
 package org.dbbeans.util.json;
 
+import java.io.IOException;
+
 import java.sql.Timestamp;
 
 import java.util.ArrayList;
@@ -16,16 +18,37 @@ public class JsonArrayOfDateTimesElement extends JsonArrayOfStringsElement {
      * @param values the array value of the element.
      */
 	public JsonArrayOfDateTimesElement(final String name, final List<Timestamp> values) {
-		super(name, getStringList(values));
+		super(name);
+		this.values = new ArrayList<Timestamp>(values);
 	}
 
-    private static List<String> getStringList(final List<Timestamp> timestamps) {
-        final List<String> strings = new ArrayList<String>(timestamps.size());
+    /**
+     * Writes this JsonElement. The values are converted to strings only at this point.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
+     * @param indentLevel the indentation level (how many tabs).
+     * @param isLast must be true if this element is the last one in the json object, to prevent this function
+     *               to print an extra comma.
+     * @throws IOException if out throws an IOException.
+     */
+	@Override
+	public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast)
+			throws IOException
+	{
+		writeName(out, format, indentLevel);
+		writeStringValues(out, format, values);
+		writeEnd(out, format, isLast);
+	}
 
-        for (Timestamp timestamp: timestamps)
-            strings.add(timestamp.toString());
+    /**
+     * Writes the value of this JsonElement in CBOR.
+     * @param out the JsonCborOutput to write to.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     */
+	@Override
+	void writeCborValue(final JsonCborOutput out) throws IOException {
+		writeCborStringValues(out, values);
+	}
 
-        return strings;
-    }
+	private final List<Timestamp> values;
 }
-
@@ -1,5 +1,7 @@
 package org.dbbeans.util.json;
 
+import java.io.IOException;
+
 import java.sql.Date;
 
 import java.util.ArrayList;
@@ -16,16 +18,37 @@ public class JsonArrayOfDatesElement extends JsonArrayOfStringsElement {
      * @param values the array value of the element.
      */
 	public JsonArrayOfDatesElement(final String name, final List<Date> values) {
-		super(name, getStringList(values));
+		super(name);
+		this.values = new ArrayList<Date>(values);
 	}
-	
-	private static List<String> getStringList(final List<Date> dates) {
-		final List<String> strings = new ArrayList<String>(dates.size());
-		
-		for (Date date: dates)
-			strings.add(date.toString());
-		
-		return strings;
+
+    /**
+     * Writes this JsonElement. The values are converted to strings only at this point.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
+     * @param indentLevel the indentation level (how many tabs).
+     * @param isLast must be true if this element is the last one in the json object, to prevent this function
+     *               to print an extra comma.
+     * @throws IOException if out throws an IOException.
+     */
+	@Override
+	public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast)
+			throws IOException
+	{
+		writeName(out, format, indentLevel);
+		writeStringValues(out, format, values);
+		writeEnd(out, format, isLast);
 	}
-}
 
+    /**
+     * Writes the value of this JsonElement in CBOR.
+     * @param out the JsonCborOutput to write to.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     */
+	@Override
+	void writeCborValue(final JsonCborOutput out) throws IOException {
+		writeCborStringValues(out, values);
+	}
+
+	private final List<Date> values;
+}
@@ -1,7 +1,15 @@
 package org.dbbeans.util.json;
 
+import java.io.IOException;
+
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * This class represents a json element with an embedded array of json objects value.
@@ -14,48 +22,195 @@ public class JsonArrayOfObjectsElement extends JsonElement {
      * @param values of the element.
      */
 	public JsonArrayOfObjectsElement(final String name, final List<JsonObject> values) {
+		this(name, values, true);
+	}
+
+	private JsonArrayOfObjectsElement(final String name, final List<JsonObject> values, final boolean copy) {
+		this(name, values, copy, null, 0);
+	}
+
+	private JsonArrayOfObjectsElement(
+			final String name,
+			final List<JsonObject> values,
+			final boolean copy,
+			final ExecutorService executor,
+			final int chunkSize)
+	{
 		super(name);
-		this.values = new ArrayList<JsonObject>(values.size());
-		for (JsonObject jo: values)
-			this.values.add(new JsonObject(jo));
+		if (copy) {
+			this.values = new ArrayList<JsonObject>(values.size());
+			for (JsonObject jo: values)
+				this.values.add(new JsonObject(jo));
+		} else {
+			this.values = values;
+		}
+		this.executor = executor;
+		this.chunkSize = chunkSize;
 	}
 
     /**
-     * Prints this JsonElement. This function is usually called from the {@link JsonObject#print(int, boolean)}
-     * function of the enclosing JsonObject.
+     * Creates the json element without copying the list of JsonObjects or the JsonObjects it contains. The list
+     * and the JsonObjects should therefore not be modified until the element has been printed.
+     * @param name of the element.
+     * @param values of the element.
+     * @return a json element that wraps the list of JsonObjects.
+     */
+	public static JsonArrayOfObjectsElement wrap(final String name, final List<JsonObject> values) {
+		return new JsonArrayOfObjectsElement(name, values, false);
+	}
+
+    /**
+     * Creates the json element without copying the list of JsonObjects, like {@link #wrap(String, List)}, and
+     * prints it in parallel. When the element is printed, the list is split into chunks of
+     * <code>chunkSize</code> JsonObjects, which are rendered concurrently by the executor into separate buffers.
+     * The buffers are then written to the output in order, as soon as they are available, so that the result is
+     * identical to sequential printing.
+     * <p>This is only worthwhile for arrays of many thousands of JsonObjects. The JsonObjects, and any
+     * {@link JsonLazyElement} they contain, are printed from the threads of the executor and must therefore not
+     * depend on the calling thread. If the list is not larger than <code>chunkSize</code>, it is printed
+     * sequentially.</p>
+     * @param name of the element.
+     * @param values of the element.
+     * @param executor used to render the chunks.
+     * @param chunkSize number of JsonObjects rendered by each task, must be at least 1.
+     * @return a json element that wraps the list of JsonObjects.
+     */
+	public static JsonArrayOfObjectsElement wrapParallel(
+			final String name,
+			final List<JsonObject> values,
+			final ExecutorService executor,
+			final int chunkSize)
+	{
+		if (chunkSize < 1)
+			throw new IllegalArgumentException("chunkSize < 1 / chunkSize = " + chunkSize);
+
+		return new JsonArrayOfObjectsElement(name, values, false, executor, chunkSize);
+	}
+
+    /**
+     * Writes this JsonElement. This function is usually called from the
+     * {@link JsonObject#writeTo(Appendable, JsonFormat, int, boolean)} function of the enclosing JsonObject.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
      * @param indentLevel the indentation level (how many tabs).
      * @param isLast must be true if this element is the last one in the json object, to prevent this function
      *               to print an extra comma.
-     * @return a multiline representation of this JsonElement.
+     * @throws IOException if out throws an IOException.
      */
 	@Override
-	public String print(final int indentLevel, final boolean isLast) {
-		final String tabs = getTabs(indentLevel);
-		
-		final StringBuilder buf = new StringBuilder();
-		
-		buf.append(tabs);
-		buf.append("\"");
-		buf.append(getName());
-		buf.append("\" : [\n");
+	public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast)
+			throws IOException
+	{
+		writeName(out, format, indentLevel);
+		out.append('[');
+		format.writeNewLine(out);
+		if (executor != null && values.size() > chunkSize)
+			writeChunksInParallel(out, format, indentLevel + 1);
+		else
+			writeObjects(out, format, indentLevel + 1, values);
+		format.writeIndent(out, indentLevel);
+		out.append(']');
+		writeEnd(out, format, isLast);
+	}
+
+	private static void writeObjects(
+			final Appendable out,
+			final JsonFormat format,
+			final int indentLevel,
+			final List<JsonObject> objects) throws IOException
+	{
 		int index = 0;
-		final int max = values.size();
-		for (JsonObject jo: values) {
+		final int max = objects.size();
+		for (JsonObject jo: objects) {
 			index++;
-			buf.append(jo.print(indentLevel + 1, true));
+			jo.writeTo(out, format, indentLevel, true);
 			if (index != max)
-				buf.append(",");
-			buf.append("\n");
+				out.append(',');
+			format.writeNewLine(out);
+		}
+	}
+
+	private void writeChunksInParallel(final Appendable out, final JsonFormat format, final int indentLevel)
+			throws IOException
+	{
+		final Queue<Future<String>> pending = new ArrayDeque<Future<String>>();
+		final int max = values.size();
+		int start = 0;
+		try {
+			while (start < max || !pending.isEmpty()) {
+				while (start < max && pending.size() < MAX_PENDING_CHUNKS) {
+					final int end = Math.min(start + chunkSize, max);
+					pending.add(executor.submit(new ChunkRenderer(values.subList(start, end), format, indentLevel)));
+					start = end;
+				}
+				out.append(pending.remove().get());
+				if (!pending.isEmpty() || start < max) {
+					out.append(',');
+					format.writeNewLine(out);
+				}
+			}
+			format.writeNewLine(out);
+		} catch (final InterruptedException iex) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(iex);
+		} catch (final ExecutionException eex) {
+			final Throwable cause = eex.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			throw new RuntimeException(cause);
+		} finally {
+			for (Future<String> future: pending)
+				future.cancel(false);
+		}
+	}
+
+	private static class ChunkRenderer implements Callable<String> {
+
+		ChunkRenderer(final List<JsonObject> objects, final JsonFormat format, final int indentLevel) {
+			this.objects = objects;
+			this.format = format;
+			this.indentLevel = indentLevel;
 		}
-		buf.append(tabs);
-		buf.append("]");
-		if (!isLast)
-			buf.append(",");
-		buf.append("\n");
-		
-		return buf.toString();
+
+		@Override
+		public String call() {
+			final StringBuilder buf = new StringBuilder();
+			try {
+				int index = 0;
+				for (JsonObject jo: objects) {
+					if (index++ > 0) {
+						buf.append(',');
+						format.writeNewLine(buf);
+					}
+					jo.writeTo(buf, format, indentLevel, true);
+				}
+			} catch (final IOException ioex) {
+				throw new RuntimeException(ioex); // should never happen with a StringBuilder ...
+			}
+			return buf.toString();
+		}
+
+		private final List<JsonObject> objects;
+		private final JsonFormat format;
+		private final int indentLevel;
 	}
 	
+    /**
+     * Writes the value of this JsonElement in CBOR.
+     * @param out the JsonCborOutput to write to.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     */
+	@Override
+	void writeCborValue(final JsonCborOutput out) throws IOException {
+		out.writeArrayHeader(values.size());
+		for (JsonObject jo: values)
+			jo.writeCbor(out);
+	}
+
 	private final List<JsonObject> values;
+	private final ExecutorService executor;
+	private final int chunkSize;
+
+	private static final int MAX_PENDING_CHUNKS = 64;
 }
 
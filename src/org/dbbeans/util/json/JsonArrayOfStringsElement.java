@@ -1,6 +1,9 @@
 package org.dbbeans.util.json;
 
+import java.io.IOException;
+
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -19,41 +22,83 @@ public class JsonArrayOfStringsElement extends JsonElement {
 	}
 
     /**
-     * Prints this JsonElement. This function is usually called from the {@link JsonObject#print(int, boolean)}
-     * function of the enclosing JsonObject.
+     * Creates the json element and gives it a name. This constructor is meant for subclasses that keep their values
+     * in another form and convert them only when the element is printed, by overriding
+     * {@link #writeTo(Appendable, JsonFormat, int, boolean)}.
+     * @param name of the element.
+     * @see #writeStringValues(Appendable, JsonFormat, List)
+     */
+	protected JsonArrayOfStringsElement(final String name) {
+		super(name);
+		values = Collections.emptyList();
+	}
+
+    /**
+     * Writes this JsonElement. This function is usually called from the
+     * {@link JsonObject#writeTo(Appendable, JsonFormat, int, boolean)} function of the enclosing JsonObject.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
      * @param indentLevel the indentation level (how many tabs).
      * @param isLast must be true if this element is the last one in the json object, to prevent this function
      *               to print an extra comma.
-     * @return a representation of this JsonElement.
+     * @throws IOException if out throws an IOException.
      */
 	@Override
-	public String print(final int indentLevel, final boolean isLast) {
-		final String tabs = getTabs(indentLevel);
-		
-		final StringBuilder buf = new StringBuilder();
-		
-		buf.append(tabs);
-		buf.append("\"");
-		buf.append(getName());
-		buf.append("\" : [ ");
+	public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast)
+			throws IOException
+	{
+		writeName(out, format, indentLevel);
+		writeStringValues(out, format, values);
+		writeEnd(out, format, isLast);
+	}
+	
+    /**
+     * Writes a list of values as a single line array of strings. The string representation of each value
+     * is obtained by calling its toString() function, and escaped as required. Null values are written as the
+     * string "null".
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
+     * @param values to be written.
+     * @throws IOException if out throws an IOException.
+     */
+	protected static void writeStringValues(final Appendable out, final JsonFormat format, final List<?> values)
+			throws IOException
+	{
+		format.writeArrayStart(out);
 		int index = 0;
 		final int max = values.size();
-		for (String val: values) {
+		for (Object val: values) {
 			index++;
-			buf.append("\"");
-			buf.append(val);
-			buf.append("\"");
+			writeString(out, String.valueOf(val));
 			if (index != max)
-				buf.append(", ");
+				format.writeArraySeparator(out);
 		}
-		buf.append(" ]");
-		if (!isLast)
-			buf.append(",");
-		buf.append("\n");
-		
-		return buf.toString();
+		format.writeArrayEnd(out);
 	}
-	
+
+    /**
+     * Writes the value of this JsonElement in CBOR.
+     * @param out the JsonCborOutput to write to.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     */
+	@Override
+	void writeCborValue(final JsonCborOutput out) throws IOException {
+		writeCborStringValues(out, values);
+	}
+
+    /**
+     * Writes a list of values as a CBOR array of text strings. The string representation of each value is obtained
+     * by calling its toString() function. Null values are written as the string "null", like in the json output.
+     * @param out the JsonCborOutput to write to.
+     * @param values to be written.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     */
+	static void writeCborStringValues(final JsonCborOutput out, final List<?> values) throws IOException {
+		out.writeArrayHeader(values.size());
+		for (Object val: values)
+			out.writeString(String.valueOf(val));
+	}
+
 	private final List<String> values;
 }
 
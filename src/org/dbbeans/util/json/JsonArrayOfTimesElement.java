@@ -1,12 +1,14 @@
 package org.dbbeans.util.json;
 
+import java.io.IOException;
+
 import java.sql.Time;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * This class represents a json element with an array of strings value.
+ * This class represents a json element with an array of times value.
  */
 public class JsonArrayOfTimesElement extends JsonArrayOfStringsElement {
 
@@ -16,16 +18,37 @@ public class JsonArrayOfTimesElement extends JsonArrayOfStringsElement {
      * @param values the array value of the element.
      */
 	public JsonArrayOfTimesElement(final String name, final List<Time> values) {
-		super(name, getStringList(values));
+		super(name);
+		this.values = new ArrayList<Time>(values);
 	}
-	
-	private static List<String> getStringList(final List<Time> times) {
-		final List<String> strings = new ArrayList<String>(times.size());
-		
-		for (Time time: times)
-			strings.add(time.toString());
-		
-		return strings;
+
+    /**
+     * Writes this JsonElement. The values are converted to strings only at this point.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
+     * @param indentLevel the indentation level (how many tabs).
+     * @param isLast must be true if this element is the last one in the json object, to prevent this function
+     *               to print an extra comma.
+     * @throws IOException if out throws an IOException.
+     */
+	@Override
+	public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast)
+			throws IOException
+	{
+		writeName(out, format, indentLevel);
+		writeStringValues(out, format, values);
+		writeEnd(out, format, isLast);
 	}
-}
 
+    /**
+     * Writes the value of this JsonElement in CBOR.
+     * @param out the JsonCborOutput to write to.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     */
+	@Override
+	void writeCborValue(final JsonCborOutput out) throws IOException {
+		writeCborStringValues(out, values);
+	}
+
+	private final List<Time> values;
+}
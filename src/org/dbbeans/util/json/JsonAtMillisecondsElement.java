@@ -1,5 +1,7 @@
 package org.dbbeans.util.json;
 
+import java.io.IOException;
+
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
@@ -16,7 +18,7 @@ public class JsonAtMillisecondsElement extends JsonStringElement {
      * @param value of the element.
      */
 	public JsonAtMillisecondsElement(final String name, final Date value) {
-		super(name, calcVal(value.getTime()));
+		this(name, value.getTime());
 	}
 
     /**
@@ -25,7 +27,7 @@ public class JsonAtMillisecondsElement extends JsonStringElement {
      * @param value of the element.
      */
 	public JsonAtMillisecondsElement(final String name, final Time value) {
-		super(name, calcVal(value.getTime()));
+		this(name, value.getTime());
 	}
 
     /**
@@ -34,7 +36,52 @@ public class JsonAtMillisecondsElement extends JsonStringElement {
      * @param value of the element.
      */
     public JsonAtMillisecondsElement(final String name, final Timestamp value) {
-        super(name, calcVal(value.getTime()));
+        this(name, value.getTime());
+    }
+
+    private JsonAtMillisecondsElement(final String name, final long millis) {
+        super(name);
+        this.millis = millis;
+    }
+
+    /**
+     * Writes this JsonElement. The milliseconds value is written digit by digit, without creating an
+     * intermediate String.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
+     * @param indentLevel the indentation level (how many tabs).
+     * @param isLast must be true if this element is the last one in the json object, to prevent this function
+     *               to print an extra comma.
+     * @throws IOException if out throws an IOException.
+     */
+    @Override
+    public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast)
+            throws IOException
+    {
+        writeName(out, format, indentLevel);
+        out.append("\"" + INDICATOR);
+        writeLong(out, millis);
+        out.append(INDICATOR + "\"");
+        writeEnd(out, format, isLast);
+    }
+
+    /**
+     * Writes the value of this JsonElement in CBOR.
+     * @param out the JsonCborOutput to write to.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     */
+    @Override
+    void writeCborValue(final JsonCborOutput out) throws IOException {
+        out.writeMilliseconds(millis);
+    }
+
+    /**
+     * Returns the value of this element, as it will be printed.
+     * @return the milliseconds value of this element, preceded and followed by an @ character.
+     */
+    @Override
+    protected String getValue() {
+        return calcVal(millis);
     }
 
     /**
@@ -45,7 +92,8 @@ public class JsonAtMillisecondsElement extends JsonStringElement {
 	protected static String calcVal(final long millis) {
         return INDICATOR + millis + INDICATOR;
 	}
-	
+
+	private final long millis;
+
 	private final static String INDICATOR = "@";
 }
-
@@ -1,5 +1,7 @@
 package org.dbbeans.util.json;
 
+import java.io.IOException;
+
 /**
  * This class represents a json element with a boolean value.
  */
@@ -18,28 +20,31 @@ public class JsonBooleanElement extends JsonElement {
 	}
 
     /**
-     * Prints this JsonElement. This function is usually called from the {@link JsonObject#print(int, boolean)}
-     * function of the enclosing JsonObject.
+     * Writes this JsonElement. This function is usually called from the
+     * {@link JsonObject#writeTo(Appendable, JsonFormat, int, boolean)} function of the enclosing JsonObject.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
      * @param indentLevel the indentation level (how many tabs).
      * @param isLast must be true if this element is the last one in the json object, to prevent this function
      *               to print an extra comma.
-     * @return a representation of this JsonElement.
+     * @throws IOException if out throws an IOException.
      */
     @Override
-    public String print(final int indentLevel, final boolean isLast) {
-        final String tabs = getTabs(indentLevel);
-
-        final StringBuilder buf = new StringBuilder();
-
-        buf.append(tabs);
-        buf.append("\"");
-        buf.append(getName());
-        buf.append("\" : ");
-        buf.append(value);
-        if (!isLast)
-            buf.append(",");
-        buf.append("\n");
+    public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast)
+            throws IOException
+    {
+        writeName(out, format, indentLevel);
+        out.append(value ? "true" : "false");
+        writeEnd(out, format, isLast);
+    }
 
-        return buf.toString();
+    /**
+     * Writes the value of this JsonElement in CBOR.
+     * @param out the JsonCborOutput to write to.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     */
+    @Override
+    void writeCborValue(final JsonCborOutput out) throws IOException {
+        out.writeBoolean(value);
     }
 }
@@ -0,0 +1,227 @@
+package org.dbbeans.util.json;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * This class writes {@link JsonObject}s in the Concise Binary Object Representation (CBOR, RFC 8949), a binary
+ * equivalent of json that is smaller and faster to produce and read than text.
+ * <p>The elements are mapped as follows:</p>
+ * <ul>
+ *     <li>JsonObjects are written as maps with text string keys;</li>
+ *     <li>integers are written as CBOR integers, without any decimal conversion;</li>
+ *     <li>strings, dates, times and timestamps are written as text strings, exactly as they would be printed;</li>
+ *     <li>milliseconds values ({@link JsonAtMillisecondsElement}) are written as epoch based date/time values
+ *     (tag 1), using an integer number of seconds when possible and a floating point number otherwise;</li>
+ *     <li>booleans, null values and arrays are written as their CBOR equivalents.</li>
+ * </ul>
+ * <p>Elements created by {@link JsonReflectionBeanMapper} and {@link JsonResultSetWriter} are written with the same
+ * mapping. The rows of a ResultSet are written as an indefinite length array, since their number is not known in
+ * advance. Elements defined outside of this package are printed and parsed back with {@link JsonParser} to be written:
+ * an IllegalArgumentException is thrown if their printed form cannot be parsed.</p>
+ * <p>The bytes are accumulated in an internal buffer: {@link #flush()} must be called once all objects have been
+ * written. This class is not thread safe.</p>
+ * @see JsonCborReader
+ */
+public class JsonCborOutput implements Flushable {
+
+    /**
+     * Creates an output that writes to an OutputStream.
+     * @param outputStream to write to.
+     */
+    public JsonCborOutput(final OutputStream outputStream) {
+        this(outputStream, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates an output that writes to an OutputStream, with a specific internal buffer size.
+     * @param outputStream to write to.
+     * @param bufferSize size of the internal buffer in bytes, must be at least 16.
+     */
+    public JsonCborOutput(final OutputStream outputStream, final int bufferSize) {
+        if (bufferSize < MIN_BUFFER_SIZE)
+            throw new IllegalArgumentException("bufferSize < " + MIN_BUFFER_SIZE + " / bufferSize = " + bufferSize);
+
+        this.outputStream = outputStream;
+        buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Writes a JsonObject as a CBOR map. Several JsonObjects can be written one after the other.
+     * @param jsonObject to be written.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     * @throws IllegalArgumentException if the JsonObject contains an element defined outside of this package
+     * whose printed form cannot be parsed by {@link JsonParser}.
+     */
+    public void write(final JsonObject jsonObject) throws IOException {
+        jsonObject.writeCbor(this);
+    }
+
+    /**
+     * Writes all buffered bytes to the underlying OutputStream and flushes it.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        outputStream.flush();
+    }
+
+    void writeMapHeader(final int size) throws IOException {
+        writeHeader(MAJOR_MAP, size);
+    }
+
+    void writeArrayHeader(final int size) throws IOException {
+        writeHeader(MAJOR_ARRAY, size);
+    }
+
+    // for arrays whose size is not known in advance, which must be terminated by writeBreak()
+    void writeIndefiniteArrayHeader() throws IOException {
+        writeByte((MAJOR_ARRAY << 5) | INDEFINITE_LENGTH);
+    }
+
+    void writeBreak() throws IOException {
+        writeByte(BREAK);
+    }
+
+    void writeLong(final long value) throws IOException {
+        if (value < 0)
+            writeHeader(MAJOR_NEGATIVE_INTEGER, -1 - value);
+        else
+            writeHeader(MAJOR_UNSIGNED_INTEGER, value);
+    }
+
+    void writeBoolean(final boolean value) throws IOException {
+        writeByte(value ? TRUE : FALSE);
+    }
+
+    void writeNull() throws IOException {
+        writeByte(NULL);
+    }
+
+    void writeMilliseconds(final long millis) throws IOException {
+        writeHeader(MAJOR_TAG, TAG_EPOCH_DATE_TIME);
+        if (millis % 1000 == 0) {
+            writeLong(millis / 1000);
+        } else {
+            ensureCapacity(9);
+            buffer[position++] = (byte) FLOAT64;
+            writeBigEndian(Double.doubleToLongBits(millis / 1000.0), 8);
+        }
+    }
+
+    void writeString(final String value) throws IOException {
+        final int length = value.length();
+        int byteCount = length;
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80)
+                continue;
+            if (c < 0x800)
+                byteCount += 1;
+            else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1)))
+                byteCount += 2;  // 4 bytes for 2 chars
+            else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE)
+                continue;  // lone surrogates are replaced by '?'
+            else
+                byteCount += 2;
+        }
+        writeHeader(MAJOR_TEXT_STRING, byteCount);
+
+        for (int i = 0; i < length; i++) {
+            if (buffer.length - position < 4)
+                flushBuffer();
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void writeHeader(final int majorType, final long argument) throws IOException {
+        ensureCapacity(9);
+        final int initialByte = majorType << 5;
+        if (argument < 24) {
+            buffer[position++] = (byte) (initialByte | (int) argument);
+        } else if (argument < 0x100L) {
+            buffer[position++] = (byte) (initialByte | 24);
+            writeBigEndian(argument, 1);
+        } else if (argument < 0x10000L) {
+            buffer[position++] = (byte) (initialByte | 25);
+            writeBigEndian(argument, 2);
+        } else if (argument < 0x100000000L) {
+            buffer[position++] = (byte) (initialByte | 26);
+            writeBigEndian(argument, 4);
+        } else {
+            buffer[position++] = (byte) (initialByte | 27);
+            writeBigEndian(argument, 8);
+        }
+    }
+
+    private void writeBigEndian(final long value, final int byteCount) {
+        for (int shift = (byteCount - 1) * 8; shift >= 0; shift -= 8)
+            buffer[position++] = (byte) (value >>> shift);
+    }
+
+    private void writeByte(final int value) throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensureCapacity(final int byteCount) throws IOException {
+        if (buffer.length - position < byteCount)
+            flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position == 0)
+            return;
+
+        outputStream.write(buffer, 0, position);
+        position = 0;
+    }
+
+    private final OutputStream outputStream;
+    private final byte[] buffer;
+    private int position = 0;
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int MIN_BUFFER_SIZE = 16;
+
+    static final int MAJOR_UNSIGNED_INTEGER = 0;
+    static final int MAJOR_NEGATIVE_INTEGER = 1;
+    static final int MAJOR_BYTE_STRING = 2;
+    static final int MAJOR_TEXT_STRING = 3;
+    static final int MAJOR_ARRAY = 4;
+    static final int MAJOR_MAP = 5;
+    static final int MAJOR_TAG = 6;
+    static final int MAJOR_SIMPLE = 7;
+
+    static final int TAG_EPOCH_DATE_TIME = 1;
+
+    static final int INDEFINITE_LENGTH = 31;
+
+    static final int FALSE = 0xF4;
+    static final int TRUE = 0xF5;
+    static final int NULL = 0xF6;
+    static final int UNDEFINED = 0xF7;
+    static final int FLOAT32 = 0xFA;
+    static final int FLOAT64 = 0xFB;
+    static final int BREAK = 0xFF;
+}
@@ -0,0 +1,321 @@
+package org.dbbeans.util.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.nio.charset.Charset;
+
+import java.sql.Timestamp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class reads {@link JsonObject}s encoded in CBOR, as written by {@link JsonCborOutput}, and turns them back
+ * into the elements of the json package.
+ * <p>Maps become JsonObjects, integers become {@link JsonIntegerElement}s, text strings become
+ * {@link JsonStringElement}s and epoch based date/time values (tag 1) become {@link JsonAtMillisecondsElement}s.
+ * As with {@link JsonReader}, arrays must contain values of a single type and cannot contain null values or other
+ * arrays. Empty arrays become empty {@link JsonArrayOfStringsElement}s. Map keys must be text strings. Both
+ * definite and indefinite lengths are accepted.</p>
+ * <p>Input that is malformed or that cannot be represented by the elements of the json package causes an
+ * IllegalArgumentException to be thrown. This class is not thread safe.</p>
+ */
+public class JsonCborReader implements Closeable {
+
+    /**
+     * Creates a JsonCborReader that reads from an InputStream. The InputStream does not need to be buffered.
+     * @param inputStream to read from.
+     */
+    public JsonCborReader(final InputStream inputStream) {
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * Checks if there are more objects to read.
+     * @return true if the input contains more bytes, false if it has been read entirely.
+     * @throws IOException if the underlying InputStream throws an IOException.
+     */
+    public boolean hasNext() throws IOException {
+        return position < limit || fill();
+    }
+
+    /**
+     * Reads the next object in the input.
+     * @return the next JsonObject.
+     * @throws IOException if the underlying InputStream throws an IOException.
+     * @throws IllegalArgumentException if the input is malformed, if the next value is not a map, or if the map
+     * cannot be represented with the elements available in the json package.
+     */
+    public JsonObject readObject() throws IOException {
+        final int initialByte = readByte();
+        if (initialByte >> 5 != JsonCborOutput.MAJOR_MAP)
+            throw formatError("Expected a map but found major type " + (initialByte >> 5));
+
+        return readMap(initialByte);
+    }
+
+    /**
+     * Closes the underlying InputStream.
+     * @throws IOException if the underlying InputStream throws an IOException.
+     */
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    private JsonObject readMap(final int initialByte) throws IOException {
+        final long size = readLength(initialByte);
+
+        final JsonObject jsonObject = new JsonObject();
+        for (long i = 0; size < 0 || i < size; i++) {
+            final int keyByte = readByte();
+            if (size < 0 && keyByte == JsonCborOutput.BREAK)
+                break;
+            if (keyByte >> 5 != JsonCborOutput.MAJOR_TEXT_STRING)
+                throw formatError("Map keys must be text strings");
+            final String name = readText(keyByte);
+            jsonObject.addElement(createElement(name, readValue(readByte())));
+        }
+
+        return jsonObject;
+    }
+
+    private Object readValue(final int initialByte) throws IOException {
+        switch (initialByte >> 5) {
+            case JsonCborOutput.MAJOR_UNSIGNED_INTEGER:
+            case JsonCborOutput.MAJOR_NEGATIVE_INTEGER:
+                return readInteger(initialByte);
+            case JsonCborOutput.MAJOR_TEXT_STRING:
+                return readText(initialByte);
+            case JsonCborOutput.MAJOR_ARRAY:
+                return readArray(initialByte);
+            case JsonCborOutput.MAJOR_MAP:
+                return readMap(initialByte);
+            case JsonCborOutput.MAJOR_TAG:
+                return new Timestamp(readMilliseconds(initialByte));
+            case JsonCborOutput.MAJOR_SIMPLE:
+                switch (initialByte) {
+                    case JsonCborOutput.TRUE:
+                        return Boolean.TRUE;
+                    case JsonCborOutput.FALSE:
+                        return Boolean.FALSE;
+                    case JsonCborOutput.NULL:
+                    case JsonCborOutput.UNDEFINED:
+                        return null;
+                    default:
+                        throw formatError("Unsupported simple or floating point value " + initialByte);
+                }
+            default:
+                throw formatError("Byte strings are not supported");
+        }
+    }
+
+    private List<Object> readArray(final int initialByte) throws IOException {
+        final long size = readLength(initialByte);
+
+        final List<Object> values = new ArrayList<Object>();
+        for (long i = 0; size < 0 || i < size; i++) {
+            final int valueByte = readByte();
+            if (size < 0 && valueByte == JsonCborOutput.BREAK)
+                break;
+            final Object value = readValue(valueByte);
+            if (value == null)
+                throw formatError("Arrays cannot contain null values");
+            if (value instanceof List)
+                throw formatError("Arrays cannot contain other arrays");
+            if (!values.isEmpty() && values.get(0).getClass() != value.getClass())
+                throw formatError("Array of " + values.get(0).getClass().getSimpleName()
+                        + " contains a value of another type: " + value.getClass().getSimpleName());
+            values.add(value);
+        }
+
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JsonElement createElement(final String name, final Object value) {
+        if (value == null)
+            return new JsonNullElement(name);
+        if (value instanceof Long)
+            return new JsonIntegerElement(name, (Long) value);
+        if (value instanceof String)
+            return new JsonStringElement(name, (String) value);
+        if (value instanceof Boolean)
+            return new JsonBooleanElement(name, (Boolean) value);
+        if (value instanceof Timestamp)
+            return new JsonAtMillisecondsElement(name, (Timestamp) value);
+        if (value instanceof JsonObject)
+            return new JsonObjectElement(name, (JsonObject) value);
+
+        return createArrayElement(name, (List<Object>) value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JsonElement createArrayElement(final String name, final List<Object> values) {
+        if (values.isEmpty())
+            return new JsonArrayOfStringsElement(name, new ArrayList<String>());
+
+        final Object first = values.get(0);
+        if (first instanceof Long)
+            return new JsonArrayOfIntegersElement(name, (List<Long>) (List<?>) values);
+        if (first instanceof String)
+            return new JsonArrayOfStringsElement(name, (List<String>) (List<?>) values);
+        if (first instanceof Boolean)
+            return new JsonArrayOfBooleansElement(name, (List<Boolean>) (List<?>) values);
+        if (first instanceof Timestamp)
+            return JsonArrayOfAtMillisecondsElement.createElementFromTimestamps(
+                    name,
+                    (List<Timestamp>) (List<?>) values);
+
+        return JsonArrayOfObjectsElement.wrap(name, (List<JsonObject>) (List<?>) values);
+    }
+
+    private long readInteger(final int initialByte) throws IOException {
+        final long argument = readArgument(initialByte);
+        if (argument < 0)
+            throw formatError("Integer value too large");
+
+        return initialByte >> 5 == JsonCborOutput.MAJOR_NEGATIVE_INTEGER ? -1 - argument : argument;
+    }
+
+    private long readMilliseconds(final int initialByte) throws IOException {
+        final long tag = readArgument(initialByte);
+        if (tag != JsonCborOutput.TAG_EPOCH_DATE_TIME)
+            throw formatError("Unsupported tag " + tag);
+
+        final int valueByte = readByte();
+        switch (valueByte >> 5) {
+            case JsonCborOutput.MAJOR_UNSIGNED_INTEGER:
+            case JsonCborOutput.MAJOR_NEGATIVE_INTEGER:
+                final long seconds = readInteger(valueByte);
+                if (seconds > Long.MAX_VALUE / 1000 || seconds < Long.MIN_VALUE / 1000)
+                    throw formatError("Date/time value out of range");
+                return seconds * 1000;
+            case JsonCborOutput.MAJOR_SIMPLE:
+                if (valueByte == JsonCborOutput.FLOAT64)
+                    return Math.round(Double.longBitsToDouble(readBigEndian(8)) * 1000);
+                if (valueByte == JsonCborOutput.FLOAT32)
+                    return Math.round(Float.intBitsToFloat((int) readBigEndian(4)) * 1000.0);
+                break;
+        }
+
+        throw formatError("Date/time values must be integers or floating point numbers");
+    }
+
+    private String readText(final int initialByte) throws IOException {
+        final long length = readLength(initialByte);
+
+        int count = 0;
+        if (length >= 0) {
+            count = readBytes(0, length);
+        } else {
+            int chunkByte;
+            while ((chunkByte = readByte()) != JsonCborOutput.BREAK) {
+                if (chunkByte >> 5 != JsonCborOutput.MAJOR_TEXT_STRING || (chunkByte & 0x1F) == INDEFINITE_LENGTH)
+                    throw formatError("Indefinite length text strings must contain definite length text strings");
+                count = readBytes(count, readLength(chunkByte));
+            }
+        }
+
+        return new String(text, 0, count, UTF8);
+    }
+
+    private int readBytes(final int offset, final long length) throws IOException {
+        if (length > Integer.MAX_VALUE - offset)
+            throw formatError("Text string too long");
+
+        // the length comes from the input: the buffer only grows as bytes are actually read, so that a forged
+        // length cannot cause a huge allocation
+        final int total = offset + (int) length;
+        int index = offset;
+        while (index < total) {
+            if (position == limit && !fill())
+                throw formatError("Unexpected end of input");
+            final int count = Math.min(total - index, limit - position);
+            if (index + count > text.length) {
+                final byte[] larger = new byte[(int) Math.min(total, Math.max(index + count, text.length * 2L))];
+                System.arraycopy(text, 0, larger, 0, index);
+                text = larger;
+            }
+            System.arraycopy(buffer, position, text, index, count);
+            position += count;
+            index += count;
+        }
+
+        return total;
+    }
+
+    private long readLength(final int initialByte) throws IOException {
+        if ((initialByte & 0x1F) == INDEFINITE_LENGTH)
+            return -1;
+
+        final long length = readArgument(initialByte);
+        if (length < 0)
+            throw formatError("Length too large");
+
+        return length;
+    }
+
+    private long readArgument(final int initialByte) throws IOException {
+        final int info = initialByte & 0x1F;
+        if (info < 24)
+            return info;
+
+        switch (info) {
+            case 24:
+                return readBigEndian(1);
+            case 25:
+                return readBigEndian(2);
+            case 26:
+                return readBigEndian(4);
+            case 27:
+                return readBigEndian(8);
+            default:
+                throw formatError("Invalid additional information " + info);
+        }
+    }
+
+    private long readBigEndian(final int byteCount) throws IOException {
+        long value = 0;
+        for (int i = 0; i < byteCount; i++)
+            value = (value << 8) | readByte();
+
+        return value;
+    }
+
+    private int readByte() throws IOException {
+        if (position == limit && !fill())
+            throw formatError("Unexpected end of input");
+
+        return buffer[position++] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        consumed += limit;
+        position = 0;
+        limit = 0;
+
+        final int count = inputStream.read(buffer, 0, buffer.length);
+        if (count <= 0)
+            return false;
+        limit = count;
+        return true;
+    }
+
+    private IllegalArgumentException formatError(final String message) {
+        return new IllegalArgumentException(message + " at byte " + (consumed + position));
+    }
+
+    private final InputStream inputStream;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+    private long consumed = 0;
+    private byte[] text = new byte[64];
+
+    private static final int BUFFER_SIZE = 4096;
+    private static final int INDEFINITE_LENGTH = 31;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+}
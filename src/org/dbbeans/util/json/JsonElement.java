@@ -1,5 +1,7 @@
 package org.dbbeans.util.json;
 
+import java.io.IOException;
+
 /**
  * This abstract class represents the common attribute of the elements that compose a {@link JsonObject}.
  */
@@ -22,14 +24,116 @@ public abstract class JsonElement {
 	}
 
     /**
-     * Prints this JsonElement. Each subclass implements the appropriate logic. This function is usually called
-     * from the {@link JsonObject#print(int, boolean)} function of the enclosing JsonObject.
+     * Prints this JsonElement. This function is usually called from the {@link JsonObject#print(int, boolean)}
+     * function of the enclosing JsonObject. The string representation is produced by
+     * {@link #writeTo(Appendable, JsonFormat, int, boolean)}.
      * @param indentLevel the indentation level to be applied to evey printed lines (i.e., how many tabs).
      * @param isLast must be true if this element is the last one in the json object, to prevent this function
      *               to print an extra comma.
      * @return a (possibly multiline) string representation of this JsonElement.
      */
-	public abstract String print(final int indentLevel, final boolean isLast);
+	public String print(final int indentLevel, final boolean isLast) {
+		return print(JsonFormat.PRETTY, indentLevel, isLast);
+	}
+
+    /**
+     * Prints this JsonElement in the specified format.
+     * @param format the JsonFormat to use.
+     * @param indentLevel the indentation level to be applied to evey printed lines (i.e., how many tabs).
+     * @param isLast must be true if this element is the last one in the json object, to prevent this function
+     *               to print an extra comma.
+     * @return a string representation of this JsonElement.
+     * @see #writeTo(Appendable, JsonFormat, int, boolean)
+     */
+	public String print(final JsonFormat format, final int indentLevel, final boolean isLast) {
+		final StringBuilder buf = new StringBuilder();
+
+		try {
+			writeTo(buf, format, indentLevel, isLast);
+		} catch (final IOException ioex) {
+			throw new RuntimeException(ioex); // should never happen with a StringBuilder ...
+		}
+
+		return buf.toString();
+	}
+
+    /**
+     * Writes this JsonElement directly to an Appendable, like a StringBuilder or a Writer. This function is usually
+     * called from the {@link JsonObject#writeTo(Appendable, int, boolean)} function of the enclosing JsonObject, so
+     * that a whole json document can be streamed without creating intermediate strings.
+     * @param out the Appendable to write to.
+     * @param indentLevel the indentation level to be applied to evey printed lines (i.e., how many tabs).
+     * @param isLast must be true if this element is the last one in the json object, to prevent this function
+     *               to print an extra comma.
+     * @throws IOException if out throws an IOException.
+     */
+	public void writeTo(final Appendable out, final int indentLevel, final boolean isLast) throws IOException {
+		writeTo(out, JsonFormat.PRETTY, indentLevel, isLast);
+	}
+
+    /**
+     * Writes this JsonElement directly to an Appendable in the specified format. Each subclass of this package
+     * implements the appropriate logic.
+     * <p>The default implementation appends the result of {@link #print(int, boolean)}, so that subclasses written
+     * before this function existed, which only override {@link #print(int, boolean)}, keep working. Their output is
+     * in the {@link JsonFormat#PRETTY} format, except with {@link JsonFormat#COMPACT}, where the line breaks and the
+     * indentation tabs are removed so that the element fits on a single line. This requires line breaks within
+     * string values to be escaped, as the json standard mandates. Subclasses must override at least one of these two
+     * functions.</p>
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
+     * @param indentLevel the indentation level to be applied to evey printed lines (i.e., how many tabs).
+     * @param isLast must be true if this element is the last one in the json object, to prevent this function
+     *               to print an extra comma.
+     * @throws IOException if out throws an IOException.
+     */
+	public void writeTo(
+			final Appendable out,
+			final JsonFormat format,
+			final int indentLevel,
+			final boolean isLast) throws IOException
+	{
+		final String printed = print(indentLevel, isLast);
+		if (format.isPretty())
+			out.append(printed);
+		else
+			writeSingleLine(out, printed);
+	}
+
+	private static void writeSingleLine(final Appendable out, final String printed) throws IOException {
+		boolean lineStart = true;
+		for (int i = 0; i < printed.length(); i++) {
+			final char c = printed.charAt(i);
+			if (c == '\n' || c == '\r') {
+				lineStart = true;
+			} else if (!lineStart || c != '\t') {
+				out.append(c);
+				lineStart = false;
+			}
+		}
+	}
+
+    /**
+     * Writes the value of this JsonElement in CBOR. The name of the element is written beforehand by the enclosing
+     * JsonObject. The elements of this package override this function. The default implementation, used by
+     * subclasses defined elsewhere, prints the element in a json object, parses it back with {@link JsonParser} and
+     * writes the value of the resulting element.
+     * @param out the JsonCborOutput to write to.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     * @throws IllegalArgumentException if the printed form of this element cannot be parsed by {@link JsonParser}.
+     */
+	void writeCborValue(final JsonCborOutput out) throws IOException {
+		final StringBuilder buf = new StringBuilder();
+		buf.append('{');
+		writeTo(buf, JsonFormat.COMPACT, 0, true);
+		buf.append('}');
+
+		final JsonObject parsed = JsonParser.parse(buf.toString());
+		if (parsed.getElementCount() != 1)
+			throw new IllegalArgumentException("Printed form of " + getClass().getName()
+					+ " does not contain exactly one element: " + buf);
+		parsed.getElement(0).writeCborValue(out);
+	}
 
     /**
      * Prints a (possibly multiline) string representation of this JsonElement, with no trailing comma.
@@ -42,6 +146,7 @@ public abstract class JsonElement {
 
     /**
      * Given a certain indentation level, this function returns the appropriate number of tab characters.
+     * The strings for the most common indentation levels are computed once and shared.
      * @param indentLevel the indentation level.
      * @return tabs corresponding to the indentation level.
      */
@@ -49,10 +154,10 @@ public abstract class JsonElement {
 		if (indentLevel < 0)
 			throw new IllegalArgumentException("indentLevel < 0 / indentLevel = " + indentLevel);
 		
-		if (indentLevel == 0)
-			return "";
+		if (indentLevel < TABS.length)
+			return TABS[indentLevel];
 		
-		final StringBuilder buf = new StringBuilder();
+		final StringBuilder buf = new StringBuilder(indentLevel);
 		
 		for (int i = 0; i < indentLevel; i++)
 			buf.append("\t");
@@ -60,6 +165,139 @@ public abstract class JsonElement {
 		return buf.toString();
 	}
 	
+    /**
+     * Writes the indentation and name of this JsonElement, followed by the name/value separator.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
+     * @param indentLevel the indentation level.
+     * @throws IOException if out throws an IOException.
+     */
+	protected void writeName(final Appendable out, final JsonFormat format, final int indentLevel) throws IOException {
+		format.writeIndent(out, indentLevel);
+		out.append('"');
+		writeEscaped(out, name);
+		format.writeNameSeparator(out);
+	}
+
+    /**
+     * Writes the comma that separates this JsonElement from the next one if necessary, followed by a newline
+     * if the format requires it.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
+     * @param isLast true if this element is the last one in the json object.
+     * @throws IOException if out throws an IOException.
+     */
+	protected static void writeEnd(final Appendable out, final JsonFormat format, final boolean isLast)
+			throws IOException
+	{
+		if (!isLast)
+			out.append(',');
+		format.writeNewLine(out);
+	}
+
+    /**
+     * Writes the decimal representation of a long value. If out is a {@link JsonUtf8Output} or a StringBuilder,
+     * the digits are written directly into its buffer, without creating an intermediate String.
+     * @param out the Appendable to write to.
+     * @param value to be written.
+     * @throws IOException if out throws an IOException.
+     */
+	protected static void writeLong(final Appendable out, final long value) throws IOException {
+		if (out instanceof JsonUtf8Output)
+			((JsonUtf8Output) out).appendLong(value);
+		else if (out instanceof StringBuilder)
+			((StringBuilder) out).append(value);
+		else
+			out.append(Long.toString(value));
+	}
+
+    /**
+     * Writes a string value between quotes, escaping quotes, backslashes and control characters as required by
+     * the json standard.
+     * @param out the Appendable to write to.
+     * @param value to be written.
+     * @throws IOException if out throws an IOException.
+     * @see #writeEscaped(Appendable, CharSequence)
+     */
+	protected static void writeString(final Appendable out, final CharSequence value) throws IOException {
+		out.append('"');
+		writeEscaped(out, value);
+		out.append('"');
+	}
+
+    /**
+     * Writes a string, escaping quotes, backslashes and control characters as required by the json standard.
+     * The characters U+2028 and U+2029 are also escaped, so that the output can be embedded in JavaScript code.
+     * Runs of characters that need no escaping are copied in bulk. A null value is written as the four characters
+     * "null", like with {@link Appendable#append(CharSequence)}.
+     * @param out the Appendable to write to.
+     * @param value to be written.
+     * @throws IOException if out throws an IOException.
+     */
+	protected static void writeEscaped(final Appendable out, final CharSequence value) throws IOException {
+		if (value == null) {
+			out.append("null");
+			return;
+		}
+
+		final int length = value.length();
+		int start = 0;
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+			final String escape;
+			if (c < 128)
+				escape = ESCAPES[c];
+			else if (c == '\u2028')
+				escape = "\\u2028";
+			else if (c == '\u2029')
+				escape = "\\u2029";
+			else
+				continue;
+			if (escape == null)
+				continue;
+
+			if (start < i)
+				out.append(value, start, i);
+			out.append(escape);
+			start = i + 1;
+		}
+		if (start == 0)
+			out.append(value);
+		else if (start < length)
+			out.append(value, start, length);
+	}
+
+	private static String[] createEscapeTable() {
+		final String[] escapes = new String[128];
+
+		for (int c = 0; c < 0x20; c++)
+			escapes[c] = String.format("\\u%04x", c);
+		escapes['\b'] = "\\b";
+		escapes['\f'] = "\\f";
+		escapes['\n'] = "\\n";
+		escapes['\r'] = "\\r";
+		escapes['\t'] = "\\t";
+		escapes['"'] = "\\\"";
+		escapes['\\'] = "\\\\";
+
+		return escapes;
+	}
+
+	private static String[] createTabsTable() {
+		final String[] tabs = new String[32];
+
+		final StringBuilder buf = new StringBuilder();
+		for (int i = 0; i < tabs.length; i++) {
+			tabs[i] = buf.toString();
+			buf.append('\t');
+		}
+
+		return tabs;
+	}
+
+	private static final String[] ESCAPES = createEscapeTable();
+	private static final String[] TABS = createTabsTable();
+
 	final private String name;
 }
 
@@ -0,0 +1,151 @@
+package org.dbbeans.util.json;
+
+import java.io.IOException;
+
+/**
+ * This class defines how the whitespace of a json document is rendered by {@link JsonObject} and
+ * {@link JsonElement}. Two formats are available: {@link #PRETTY}, which prints one element per line and
+ * indents nested elements with tabs, and {@link #COMPACT}, which prints no whitespace at all. Multiline formats
+ * that indent with spaces instead of tabs can be obtained with {@link #prettyWithSpaces(int)}.
+ * <p>Indentation strings are computed once per format and shared, so printing a document does not create
+ * any indentation string.</p>
+ */
+public class JsonFormat {
+
+    /**
+     * Multiline format, with nested elements indented with tabs. This is the default format.
+     */
+    public static final JsonFormat PRETTY = new JsonFormat(true, "\t");
+
+    /**
+     * Single line format, without any whitespace.
+     */
+    public static final JsonFormat COMPACT = new JsonFormat(false, "");
+
+    private JsonFormat(final boolean pretty, final String indentUnit) {
+        this.pretty = pretty;
+        this.indentUnit = indentUnit;
+
+        indents = new String[CACHED_INDENT_LEVELS];
+        final StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < CACHED_INDENT_LEVELS; i++) {
+            indents[i] = buf.toString();
+            buf.append(indentUnit);
+        }
+    }
+
+    /**
+     * Returns a multiline format in which nested elements are indented with spaces instead of tabs. The same
+     * instance is returned for a given number of spaces up to 8.
+     * @param spaces number of spaces per indentation level.
+     * @return a multiline format that indents with spaces.
+     */
+    public static JsonFormat prettyWithSpaces(final int spaces) {
+        if (spaces < 1)
+            throw new IllegalArgumentException("spaces < 1 / spaces = " + spaces);
+
+        if (spaces < SPACES_FORMATS.length)
+            return SPACES_FORMATS[spaces];
+
+        return createSpacesFormat(spaces);
+    }
+
+    private static JsonFormat createSpacesFormat(final int spaces) {
+        final StringBuilder buf = new StringBuilder(spaces);
+        for (int i = 0; i < spaces; i++)
+            buf.append(' ');
+
+        return new JsonFormat(true, buf.toString());
+    }
+
+    private static JsonFormat[] createSpacesFormats() {
+        final JsonFormat[] formats = new JsonFormat[9];
+        for (int spaces = 1; spaces < formats.length; spaces++)
+            formats[spaces] = createSpacesFormat(spaces);
+
+        return formats;
+    }
+
+    /**
+     * Indicates if this format inserts newlines and indentation.
+     * @return true if this format inserts newlines and indentation, false if it produces compact output.
+     */
+    public boolean isPretty() {
+        return pretty;
+    }
+
+    /**
+     * Writes the indentation corresponding to an indentation level, if any.
+     * @param out the Appendable to write to.
+     * @param indentLevel the indentation level.
+     * @throws IOException if out throws an IOException.
+     */
+    public void writeIndent(final Appendable out, final int indentLevel) throws IOException {
+        if (!pretty)
+            return;
+
+        if (indentLevel < 0)
+            throw new IllegalArgumentException("indentLevel < 0 / indentLevel = " + indentLevel);
+
+        if (indentLevel < CACHED_INDENT_LEVELS) {
+            out.append(indents[indentLevel]);
+        } else {
+            out.append(indents[CACHED_INDENT_LEVELS - 1]);
+            for (int i = CACHED_INDENT_LEVELS - 1; i < indentLevel; i++)
+                out.append(indentUnit);
+        }
+    }
+
+    /**
+     * Writes a line break, if any.
+     * @param out the Appendable to write to.
+     * @throws IOException if out throws an IOException.
+     */
+    public void writeNewLine(final Appendable out) throws IOException {
+        if (pretty)
+            out.append('\n');
+    }
+
+    /**
+     * Writes the separator between the name of an element and its value, the closing quote of the name included.
+     * @param out the Appendable to write to.
+     * @throws IOException if out throws an IOException.
+     */
+    public void writeNameSeparator(final Appendable out) throws IOException {
+        out.append(pretty ? "\" : " : "\":");
+    }
+
+    /**
+     * Writes the opening bracket of a single line array.
+     * @param out the Appendable to write to.
+     * @throws IOException if out throws an IOException.
+     */
+    public void writeArrayStart(final Appendable out) throws IOException {
+        out.append(pretty ? "[ " : "[");
+    }
+
+    /**
+     * Writes the separator between two values of a single line array.
+     * @param out the Appendable to write to.
+     * @throws IOException if out throws an IOException.
+     */
+    public void writeArraySeparator(final Appendable out) throws IOException {
+        out.append(pretty ? ", " : ",");
+    }
+
+    /**
+     * Writes the closing bracket of a single line array.
+     * @param out the Appendable to write to.
+     * @throws IOException if out throws an IOException.
+     */
+    public void writeArrayEnd(final Appendable out) throws IOException {
+        out.append(pretty ? " ]" : "]");
+    }
+
+    private final boolean pretty;
+    private final String indentUnit;
+    private final String[] indents;
+
+    private static final int CACHED_INDENT_LEVELS = 32;
+    private static final JsonFormat[] SPACES_FORMATS = createSpacesFormats();
+}
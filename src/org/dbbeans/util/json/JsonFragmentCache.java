@@ -0,0 +1,315 @@
+package org.dbbeans.util.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class memoizes the printed form of json fragments that never change, like subtrees built from reference
+ * data and embedded in many documents.
+ * <p>A JsonObject or JsonElement is registered with {@link #freeze(JsonObject)} or {@link #freeze(JsonElement)},
+ * which return a frozen equivalent to be used in its place. The first time the frozen fragment is printed with
+ * a given format and indentation level, its string representation is computed and stored in the cache. Later
+ * print operations copy the stored string directly to the output. When a fragment is written to a
+ * {@link JsonUtf8Output}, like with {@link JsonObject#writeUtf8To(java.io.OutputStream, JsonFormat)}, its UTF-8
+ * encoding is also memoized, alongside the string, and copied as is.</p>
+ * <p>The cache holds at most <code>maxEntries</code> strings. When it is full, the least recently used string is
+ * evicted and will be computed again when needed. Fragments can also be invalidated explicitly, for example
+ * when the reference data they were built from has changed.</p>
+ * <p>The {@link JsonArrayOfObjectsElement} constructor copies the JsonObjects it receives, which turns frozen
+ * JsonObjects back into regular ones: use {@link JsonArrayOfObjectsElement#wrap(String, java.util.List)} to put
+ * frozen JsonObjects in an array.</p>
+ * <p>This class is thread safe. A fragment must not be modified after it has been frozen.</p>
+ */
+public class JsonFragmentCache {
+
+    /**
+     * Creates a new cache.
+     * @param maxEntries the maximum number of strings held by the cache.
+     */
+    public JsonFragmentCache(final int maxEntries) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("maxEntries < 1 / maxEntries = " + maxEntries);
+
+        cache = new LruMap(maxEntries, keysByFragment);
+    }
+
+    /**
+     * Returns a frozen version of a JsonObject, whose printed form is memoized in this cache.
+     * @param jsonObject to be frozen.
+     * @return a frozen JsonObject that can be used in place of jsonObject, and that cannot be modified.
+     */
+    public JsonObject freeze(final JsonObject jsonObject) {
+        return new FrozenObject(jsonObject);
+    }
+
+    /**
+     * Returns a frozen version of a JsonElement, whose printed form is memoized in this cache.
+     * @param element to be frozen.
+     * @return a frozen JsonElement that can be used in place of element.
+     */
+    public JsonElement freeze(final JsonElement element) {
+        return new FrozenElement(element);
+    }
+
+    /**
+     * Removes all the strings memoized for a frozen JsonObject.
+     * @param frozenObject a JsonObject returned by {@link #freeze(JsonObject)}.
+     */
+    public void invalidate(final JsonObject frozenObject) {
+        invalidateFragment(frozenObject);
+    }
+
+    /**
+     * Removes all the strings memoized for a frozen JsonElement.
+     * @param frozenElement a JsonElement returned by {@link #freeze(JsonElement)}.
+     */
+    public void invalidate(final JsonElement frozenElement) {
+        invalidateFragment(frozenElement);
+    }
+
+    /**
+     * Removes all the strings memoized in this cache.
+     */
+    public synchronized void clear() {
+        cache.clear();
+        keysByFragment.clear();
+    }
+
+    /**
+     * Returns the number of strings currently memoized in this cache.
+     * @return the number of strings in the cache.
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    private synchronized void invalidateFragment(final Object fragment) {
+        if (fragment instanceof FrozenObject)
+            ++((FrozenObject) fragment).generation;
+        else if (fragment instanceof FrozenElement)
+            ++((FrozenElement) fragment).generation;
+
+        final List<Key> keys = keysByFragment.remove(fragment);
+        if (keys == null)
+            return;
+
+        for (Key key: keys)
+            cache.remove(key);
+    }
+
+    private synchronized Printed get(final Key key) {
+        return cache.get(key);
+    }
+
+    private synchronized int getGeneration(final FrozenObject frozenObject) {
+        return frozenObject.generation;
+    }
+
+    private synchronized int getGeneration(final FrozenElement frozenElement) {
+        return frozenElement.generation;
+    }
+
+    // the entry is not stored if the fragment was invalidated while it was being printed, as it might then
+    // have been printed from outdated data
+    private synchronized void put(final Key key, final Printed entry, final int printedGeneration,
+            final int generation) {
+        if (printedGeneration != generation)
+            return;
+
+        if (cache.put(key, entry) == null)
+            addKey(keysByFragment, key);
+    }
+
+    private static void addKey(final Map<Object, List<Key>> keysByFragment, final Key key) {
+        List<Key> keys = keysByFragment.get(key.fragment);
+        if (keys == null) {
+            keys = new ArrayList<Key>(2);
+            keysByFragment.put(key.fragment, keys);
+        }
+        keys.add(key);
+    }
+
+    private static void removeKey(final Map<Object, List<Key>> keysByFragment, final Key key) {
+        final List<Key> keys = keysByFragment.get(key.fragment);
+        if (keys == null)
+            return;
+
+        keys.remove(key);
+        if (keys.isEmpty())
+            keysByFragment.remove(key.fragment);
+    }
+
+    // access ordered map that evicts the least recently used string, and keeps the index of the keys of each
+    // fragment up to date, so that a fragment can be invalidated without scanning the whole cache
+    private static class LruMap extends LinkedHashMap<Key, Printed> {
+
+        LruMap(final int maxEntries, final IdentityHashMap<Object, List<Key>> keysByFragment) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+            this.keysByFragment = keysByFragment;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, Printed> eldest) {
+            if (size() <= maxEntries)
+                return false;
+
+            removeKey(keysByFragment, eldest.getKey());
+            return true;
+        }
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+        private final transient IdentityHashMap<Object, List<Key>> keysByFragment;
+    }
+
+    private class FrozenObject extends JsonObject {
+
+        FrozenObject(final JsonObject jsonObject) {
+            super(jsonObject);
+        }
+
+        @Override
+        public void addElement(final JsonElement element) {
+            throw new UnsupportedOperationException("Frozen JsonObject cannot be modified");
+        }
+
+        @Override
+        public void reset() {
+            throw new UnsupportedOperationException("Frozen JsonObject cannot be modified");
+        }
+
+        @Override
+        public void writeTo(
+                final Appendable out,
+                final JsonFormat format,
+                final int indentLevel,
+                final boolean initialTabs) throws IOException
+        {
+            final Key key = new Key(this, format, indentLevel, initialTabs);
+            Printed entry = get(key);
+            if (entry == null) {
+                final int printedGeneration = getGeneration(this);
+                final StringBuilder buf = new StringBuilder();
+                // the copied elements are printed, like in CBOR, not the JsonObject that was frozen
+                super.writeTo(buf, format, indentLevel, initialTabs);
+                entry = new Printed(buf.toString());
+                put(key, entry, printedGeneration, getGeneration(this));
+            }
+            entry.writeTo(out);
+        }
+
+        // number of invalidations, guarded by the lock of the cache
+        private int generation = 0;
+    }
+
+    private class FrozenElement extends JsonElement {
+
+        FrozenElement(final JsonElement element) {
+            super(element.getName());
+            this.element = element;
+        }
+
+        @Override
+        public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast)
+                throws IOException
+        {
+            final Key key = new Key(this, format, indentLevel, isLast);
+            Printed entry = get(key);
+            if (entry == null) {
+                final int printedGeneration = getGeneration(this);
+                entry = new Printed(element.print(format, indentLevel, isLast));
+                put(key, entry, printedGeneration, getGeneration(this));
+            }
+            entry.writeTo(out);
+        }
+
+        @Override
+        void writeCborValue(final JsonCborOutput out) throws IOException {
+            element.writeCborValue(out);
+        }
+
+        private final JsonElement element;
+
+        // number of invalidations, guarded by the lock of the cache
+        private int generation = 0;
+    }
+
+    // a memoized string, and its UTF-8 encoding once it has been needed
+    private static class Printed {
+
+        Printed(final String printed) {
+            this.printed = printed;
+        }
+
+        void writeTo(final Appendable out) throws IOException {
+            if (out instanceof JsonUtf8Output)
+                ((JsonUtf8Output) out).writeUtf8(getUtf8());
+            else
+                out.append(printed);
+        }
+
+        // several threads might encode the string at the same time, which is harmless
+        private byte[] getUtf8() throws IOException {
+            byte[] bytes = utf8;
+            if (bytes == null) {
+                final ByteArrayOutputStream encoded = new ByteArrayOutputStream(printed.length() + 16);
+                final JsonUtf8Output encoder = new JsonUtf8Output(encoded);
+                encoder.append(printed);
+                encoder.flush();
+                bytes = encoded.toByteArray();
+                utf8 = bytes;
+            }
+
+            return bytes;
+        }
+
+        private final String printed;
+        private volatile byte[] utf8;
+    }
+
+    private static class Key {
+
+        Key(final Object fragment, final JsonFormat format, final int indentLevel, final boolean flag) {
+            this.fragment = fragment;
+            this.format = format;
+            this.indentLevel = indentLevel;
+            this.flag = flag;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (!(object instanceof Key))
+                return false;
+
+            final Key key = (Key) object;
+            return fragment == key.fragment && format == key.format && indentLevel == key.indentLevel
+                    && flag == key.flag;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(fragment);
+            result = 31 * result + System.identityHashCode(format);
+            result = 31 * result + indentLevel;
+            result = 31 * result + (flag ? 1 : 0);
+            return result;
+        }
+
+        private final Object fragment;
+        private final JsonFormat format;
+        private final int indentLevel;
+        private final boolean flag;
+    }
+
+    // keys of the strings held by the cache, by fragment
+    private final IdentityHashMap<Object, List<Key>> keysByFragment = new IdentityHashMap<Object, List<Key>>();
+    private final LruMap cache;
+}
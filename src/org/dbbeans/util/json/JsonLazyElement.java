@@ -0,0 +1,60 @@
+package org.dbbeans.util.json;
+
+import java.io.IOException;
+
+/**
+ * This class represents a json element whose value is only computed when the element is printed. Subclasses
+ * implement {@link #createElement(String)} to create the actual element, usually as an anonymous inner class:
+ * <pre>
+ * jsonObject.addElement(new JsonLazyElement("lastUpdate") {
+ *     protected JsonElement createElement(final String name) {
+ *         return new JsonDateTimeElement(name, getLastUpdate());
+ *     }
+ * });
+ * </pre>
+ * If the element is never printed, the value is never computed. The value is not cached: it is computed again
+ * each time the element is printed.
+ */
+public abstract class JsonLazyElement extends JsonElement {
+
+    /**
+     * Creates the json element and gives it a name.
+     * @param name of the element.
+     */
+    public JsonLazyElement(final String name) {
+        super(name);
+    }
+
+    /**
+     * Creates the element that will actually be printed.
+     * @param name of the element to create, i.e., the name of this element.
+     * @return the element to be printed.
+     */
+    protected abstract JsonElement createElement(final String name);
+
+    /**
+     * Computes the value of this JsonElement and writes it.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
+     * @param indentLevel the indentation level (how many tabs).
+     * @param isLast must be true if this element is the last one in the json object, to prevent this function
+     *               to print an extra comma.
+     * @throws IOException if out throws an IOException.
+     */
+    @Override
+    public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast)
+            throws IOException
+    {
+        createElement(getName()).writeTo(out, format, indentLevel, isLast);
+    }
+
+    /**
+     * Computes the value of this JsonElement and writes it in CBOR.
+     * @param out the JsonCborOutput to write to.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     */
+    @Override
+    void writeCborValue(final JsonCborOutput out) throws IOException {
+        createElement(getName()).writeCborValue(out);
+    }
+}
@@ -1,5 +1,10 @@
 package org.dbbeans.util.json;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.nio.ByteBuffer;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -44,25 +49,162 @@ public class JsonObject {
      * @param initialTabs to indicate if the indentation level should be applied to the first line. It should
      *                    usually not be the case if you plan to display text before the opening bracket.
      * @return a multiline string representation of this JsonObject.
+     * @see #writeTo(Appendable, int, boolean)
      */
 	public String print(final int indentLevel, final boolean initialTabs) {
-		final String tabs = JsonElement.getTabs(indentLevel);
-		
+		return print(JsonFormat.PRETTY, indentLevel, initialTabs);
+	}
+
+    /**
+     * Prints this JsonObject in the specified format.
+     * @param format the JsonFormat to use.
+     * @param indentLevel the indentation level to be applied to evey printed lines (i.e., how many tabs).
+     * @param initialTabs to indicate if the indentation level should be applied to the first line.
+     * @return a string representation of this JsonObject.
+     * @see #writeTo(Appendable, JsonFormat, int, boolean)
+     */
+	public String print(final JsonFormat format, final int indentLevel, final boolean initialTabs) {
 		final StringBuilder buf = new StringBuilder();
-		
+
+		try {
+			writeTo(buf, format, indentLevel, initialTabs);
+		} catch (final IOException ioex) {
+			throw new RuntimeException(ioex); // should never happen with a StringBuilder ...
+		}
+
+		return buf.toString();
+	}
+
+    /**
+     * Prints this JsonObject on a single line, without any whitespace.
+     * @return a compact string representation of this JsonObject.
+     * @see JsonFormat#COMPACT
+     */
+	public String printCompact() {
+		return print(JsonFormat.COMPACT, 0, false);
+	}
+
+    /**
+     * Writes this JsonObject directly to an Appendable, like a servlet Writer. The elements of this JsonObject are
+     * written one after the other to the Appendable, so no intermediate string is created, whatever the depth of
+     * the document.
+     * @param out the Appendable to write to.
+     * @param indentLevel the indentation level to be applied to evey printed lines (i.e., how many tabs).
+     * @param initialTabs to indicate if the indentation level should be applied to the first line. It should
+     *                    usually not be the case if you plan to display text before the opening bracket.
+     * @throws IOException if out throws an IOException.
+     * @see #print(int, boolean)
+     */
+	public void writeTo(final Appendable out, final int indentLevel, final boolean initialTabs) throws IOException {
+		writeTo(out, JsonFormat.PRETTY, indentLevel, initialTabs);
+	}
+
+    /**
+     * Writes this JsonObject directly to an Appendable in the specified format.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
+     * @param indentLevel the indentation level to be applied to evey printed lines (i.e., how many tabs).
+     * @param initialTabs to indicate if the indentation level should be applied to the first line.
+     * @throws IOException if out throws an IOException.
+     * @see #print(JsonFormat, int, boolean)
+     */
+	public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean initialTabs)
+			throws IOException
+	{
 		if (initialTabs)
-			buf.append(tabs);
-		buf.append("{\n");
+			format.writeIndent(out, indentLevel);
+		out.append('{');
+		format.writeNewLine(out);
 		int index = 0;
 		final int max = elements.size();
 		for (JsonElement element: elements) {
 			index++;
-			buf.append(element.print(indentLevel + 1, index == max));
+			element.writeTo(out, format, indentLevel + 1, index == max);
+		}
+		format.writeIndent(out, indentLevel);
+		out.append('}');
+	}
+
+    /**
+     * Writes a multiline string representation of this JsonObject directly to an Appendable.
+     * @param out the Appendable to write to.
+     * @throws IOException if out throws an IOException.
+     */
+	public void writeTo(final Appendable out) throws IOException {
+		writeTo(out, JsonFormat.PRETTY, 0, true);
+	}
+
+    /**
+     * Writes this JsonObject directly to an Appendable in the specified format.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
+     * @throws IOException if out throws an IOException.
+     */
+	public void writeTo(final Appendable out, final JsonFormat format) throws IOException {
+		writeTo(out, format, 0, true);
+	}
+
+    /**
+     * Writes this JsonObject as UTF-8 bytes directly to an OutputStream, without going through a Writer.
+     * The OutputStream is flushed but not closed. This function is not an overload of
+     * {@link #writeTo(Appendable, JsonFormat)}, as a PrintStream is both an OutputStream and an Appendable.
+     * @param out the OutputStream to write to.
+     * @param format the JsonFormat to use.
+     * @throws IOException if out throws an IOException.
+     * @see JsonUtf8Output
+     */
+	public void writeUtf8To(final OutputStream out, final JsonFormat format) throws IOException {
+		final JsonUtf8Output utf8Output = new JsonUtf8Output(out);
+		writeTo(utf8Output, format, 0, true);
+		utf8Output.flush();
+	}
+
+    /**
+     * Writes this JsonObject as UTF-8 bytes directly to a ByteBuffer, starting at its current position.
+     * @param buffer the ByteBuffer to write to.
+     * @param format the JsonFormat to use.
+     * @throws java.nio.BufferOverflowException if the ByteBuffer is too small to contain this JsonObject.
+     * @see JsonUtf8Output
+     */
+	public void writeUtf8To(final ByteBuffer buffer, final JsonFormat format) {
+		final JsonUtf8Output utf8Output = new JsonUtf8Output(buffer);
+		try {
+			writeTo(utf8Output, format, 0, true);
+			utf8Output.flush();
+		} catch (final IOException ioex) {
+			throw new RuntimeException(ioex); // should never happen with a ByteBuffer ...
+		}
+	}
+
+    /**
+     * Returns the number of elements in this JsonObject.
+     * @return the number of elements.
+     */
+	int getElementCount() {
+		return elements.size();
+	}
+
+    /**
+     * Returns an element of this JsonObject.
+     * @param index of the element, in the order the elements were added.
+     * @return the element at the given index.
+     */
+	JsonElement getElement(final int index) {
+		return elements.get(index);
+	}
+
+    /**
+     * Writes this JsonObject as a CBOR map.
+     * @param out the JsonCborOutput to write to.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     * @see JsonCborOutput#write(JsonObject)
+     */
+	void writeCbor(final JsonCborOutput out) throws IOException {
+		out.writeMapHeader(elements.size());
+		for (JsonElement element: elements) {
+			out.writeString(element.getName());
+			element.writeCborValue(out);
 		}
-		buf.append(tabs);
-		buf.append("}");
-		
-		return buf.toString();
 	}
 
     /**
@@ -0,0 +1,64 @@
+package org.dbbeans.util.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class contains static functions to turn a json document into a {@link JsonObject}. The document must
+ * consist of a single json object. See {@link JsonReader#readObject()} for details on how values are mapped to
+ * the different element types.
+ * <p>To process documents token by token, or very large arrays one object at a time, use
+ * {@link JsonReader} directly.</p>
+ */
+public class JsonParser {
+
+    /**
+     * Parses a json document.
+     * @param json the document to parse.
+     * @return the corresponding JsonObject.
+     * @throws IllegalArgumentException if the document is malformed or cannot be represented by a JsonObject.
+     */
+    public static JsonObject parse(final String json) {
+        try {
+            return parse(new JsonReader(new StringReader(json)));
+        } catch (final IOException ioex) {
+            throw new RuntimeException(ioex); // should never happen with a StringReader ...
+        }
+    }
+
+    /**
+     * Parses a json document read from a Reader. The Reader is not closed.
+     * @param reader to read the document from.
+     * @return the corresponding JsonObject.
+     * @throws IOException if the Reader throws an IOException.
+     * @throws IllegalArgumentException if the document is malformed or cannot be represented by a JsonObject.
+     */
+    public static JsonObject parse(final Reader reader) throws IOException {
+        return parse(new JsonReader(reader));
+    }
+
+    /**
+     * Parses a UTF-8 encoded json document contained in a ByteBuffer, from its current position up to its limit.
+     * @param buffer containing the document.
+     * @return the corresponding JsonObject.
+     * @throws IllegalArgumentException if the document is malformed or cannot be represented by a JsonObject.
+     */
+    public static JsonObject parse(final ByteBuffer buffer) {
+        try {
+            return parse(new JsonReader(buffer));
+        } catch (final IOException ioex) {
+            throw new RuntimeException(ioex); // should never happen with a ByteBuffer ...
+        }
+    }
+
+    private static JsonObject parse(final JsonReader jsonReader) throws IOException {
+        final JsonObject jsonObject = jsonReader.readObject();
+        if (jsonReader.peek() != JsonToken.END_DOCUMENT)
+            throw new IllegalArgumentException("Unexpected content after end of json object");
+
+        return jsonObject;
+    }
+}
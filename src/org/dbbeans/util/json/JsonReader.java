@@ -0,0 +1,645 @@
+package org.dbbeans.util.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import java.sql.Timestamp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is a pull parser for json documents. It reads its input incrementally through a fixed size buffer,
+ * so that documents of any size can be processed in bounded memory.
+ * <p>The document can be processed token by token with {@link #next()} and {@link #peek()}, or any object
+ * in it can be turned into a {@link JsonObject} with {@link #readObject()}. Both approaches can be mixed, which
+ * allows the processing of very large arrays one object at a time:</p>
+ * <pre>
+ * reader.next();  // START_ARRAY
+ * while (reader.peek() != JsonToken.END_ARRAY) {
+ *     final JsonObject jsonObject = reader.readObject();
+ *     ...
+ * }
+ * reader.next();  // END_ARRAY
+ * </pre>
+ * <p>Several json values can follow each other at the top level of the input, separated by whitespace, as in
+ * newline delimited json. {@link JsonToken#END_DOCUMENT} is returned once the input is exhausted.</p>
+ * <p>Malformed input causes an IllegalArgumentException to be thrown. This class is not thread safe.</p>
+ * @see JsonParser
+ */
+public class JsonReader implements Closeable {
+
+    /**
+     * Creates a JsonReader that reads characters from a Reader. The Reader does not need to be buffered.
+     * @param reader to read from.
+     */
+    public JsonReader(final Reader reader) {
+        this.reader = reader;
+        byteBuffer = null;
+        decoder = null;
+    }
+
+    /**
+     * Creates a JsonReader that decodes UTF-8 bytes from a ByteBuffer, from its current position up to its limit.
+     * @param byteBuffer to read from.
+     */
+    public JsonReader(final ByteBuffer byteBuffer) {
+        reader = null;
+        this.byteBuffer = byteBuffer;
+        decoder = Charset.forName("UTF-8").newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+    }
+
+    /**
+     * Returns the next token in the document, without consuming it.
+     * @return the next token.
+     * @throws IOException if the underlying Reader throws an IOException.
+     * @throws IllegalArgumentException if the document is malformed.
+     */
+    public JsonToken peek() throws IOException {
+        if (peeked == null)
+            peeked = readToken();
+
+        return peeked;
+    }
+
+    /**
+     * Consumes and returns the next token in the document. The value of a {@link JsonToken#NAME},
+     * {@link JsonToken#STRING} or {@link JsonToken#NUMBER} token is available through {@link #getName()},
+     * {@link #getString()} and {@link #getLong()} respectively.
+     * @return the next token.
+     * @throws IOException if the underlying Reader throws an IOException.
+     * @throws IllegalArgumentException if the document is malformed.
+     */
+    public JsonToken next() throws IOException {
+        final JsonToken token = peek();
+        peeked = null;
+        return token;
+    }
+
+    /**
+     * Returns the name of the last {@link JsonToken#NAME} token.
+     * @return the name of the current element.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the value of the last {@link JsonToken#STRING} token, or the text of the last
+     * {@link JsonToken#NUMBER} token.
+     * @return the value of the current string.
+     */
+    public String getString() {
+        return value.toString();
+    }
+
+    /**
+     * Returns the value of the last {@link JsonToken#NUMBER} token.
+     * @return the value of the current number.
+     * @throws IllegalStateException if the number is not an integer or does not fit in a long.
+     */
+    public long getLong() {
+        if (!integral)
+            throw new IllegalStateException("Number " + value + " cannot be represented as a long");
+
+        return longValue;
+    }
+
+    /**
+     * Skips the next value in the document, including all the elements it contains if it is an object or an
+     * array. If the next token is a name, it is skipped together with its value.
+     * @throws IOException if the underlying Reader throws an IOException.
+     * @throws IllegalArgumentException if the document is malformed, or if the next token ends an object, an array
+     * or the document, in which case it is not consumed.
+     */
+    public void skipValue() throws IOException {
+        final JsonToken first = peek();
+        if (first == JsonToken.END_OBJECT || first == JsonToken.END_ARRAY || first == JsonToken.END_DOCUMENT)
+            throw new IllegalArgumentException("No value to skip before " + first);
+
+        int depth = 0;
+        do {
+            final JsonToken token = next();
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY)
+                ++depth;
+            else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY)
+                --depth;
+            else if (token == JsonToken.NAME)
+                skipValue();
+        } while (depth > 0);
+    }
+
+    /**
+     * Reads the next value in the document, which must be an object, and returns it as a {@link JsonObject}.
+     * <p>Strings of the form @digits@ are turned into {@link JsonAtMillisecondsElement}s and other strings into
+     * {@link JsonStringElement}s. Arrays must contain values of a single type. Numbers must be integers,
+     * as the json package has no element type for decimal values.</p>
+     * @return the next object in the document.
+     * @throws IOException if the underlying Reader throws an IOException.
+     * @throws IllegalArgumentException if the document is malformed or if the object cannot be represented
+     * with the elements available in the json package.
+     */
+    public JsonObject readObject() throws IOException {
+        expect(JsonToken.START_OBJECT);
+
+        final JsonObject jsonObject = new JsonObject();
+        while (next() == JsonToken.NAME) {
+            final String elementName = name;
+            final JsonToken token = peek();
+            switch (token) {
+                case START_OBJECT:
+                    jsonObject.addElement(new JsonObjectElement(elementName, readObject()));
+                    break;
+                case START_ARRAY:
+                    jsonObject.addElement(readArray(elementName));
+                    break;
+                case STRING:
+                    next();
+                    jsonObject.addElement(createStringElement(elementName, getString()));
+                    break;
+                case NUMBER:
+                    next();
+                    jsonObject.addElement(new JsonIntegerElement(elementName, getIntegerValue()));
+                    break;
+                case TRUE:
+                case FALSE:
+                    next();
+                    jsonObject.addElement(new JsonBooleanElement(elementName, token == JsonToken.TRUE));
+                    break;
+                case NULL:
+                    next();
+                    jsonObject.addElement(new JsonNullElement(elementName));
+                    break;
+                default:
+                    throw syntaxError("Unexpected token " + token);
+            }
+        }
+
+        return jsonObject;
+    }
+
+    private JsonElement readArray(final String elementName) throws IOException {
+        expect(JsonToken.START_ARRAY);
+
+        final JsonToken type = peek();
+        switch (type) {
+            case END_ARRAY:
+                next();
+                return new JsonArrayOfStringsElement(elementName, new ArrayList<String>());
+            case START_OBJECT:
+                final List<JsonObject> objects = new ArrayList<JsonObject>();
+                while (peek() == JsonToken.START_OBJECT)
+                    objects.add(readObject());
+                expect(JsonToken.END_ARRAY);
+                return JsonArrayOfObjectsElement.wrap(elementName, objects);
+            case NUMBER:
+                long[] numbers = new long[16];
+                int count = 0;
+                while (next() == JsonToken.NUMBER) {
+                    if (count == numbers.length)
+                        numbers = Arrays.copyOf(numbers, count * 2);
+                    numbers[count++] = getIntegerValue();
+                }
+                checkArrayEnd(type);
+                return JsonArrayOfIntegersElement.wrap(elementName, Arrays.copyOf(numbers, count));
+            case TRUE:
+            case FALSE:
+                final List<Boolean> booleans = new ArrayList<Boolean>();
+                JsonToken token;
+                while ((token = next()) == JsonToken.TRUE || token == JsonToken.FALSE)
+                    booleans.add(token == JsonToken.TRUE);
+                checkArrayEnd(type);
+                return new JsonArrayOfBooleansElement(elementName, booleans);
+            case STRING:
+                final List<String> strings = new ArrayList<String>();
+                boolean allMillis = true;
+                while (next() == JsonToken.STRING) {
+                    final String string = getString();
+                    allMillis = allMillis && isAtMilliseconds(string);
+                    strings.add(string);
+                }
+                checkArrayEnd(type);
+                if (allMillis) {
+                    final long[] millis = new long[strings.size()];
+                    for (int i = 0; i < millis.length; i++)
+                        millis[i] = getMilliseconds(strings.get(i));
+                    return JsonArrayOfAtMillisecondsElement.wrap(elementName, millis);
+                }
+                return new JsonArrayOfStringsElement(elementName, strings);
+            default:
+                throw syntaxError("Arrays of " + type + " are not supported");
+        }
+    }
+
+    private void checkArrayEnd(final JsonToken type) {
+        if (lastToken != JsonToken.END_ARRAY)
+            throw syntaxError("Array of " + type + " contains a value of another type: " + lastToken);
+    }
+
+    private void expect(final JsonToken expected) throws IOException {
+        final JsonToken token = next();
+        if (token != expected)
+            throw syntaxError("Expected " + expected + " but found " + token);
+    }
+
+    private long getIntegerValue() {
+        if (!integral)
+            throw syntaxError("Number " + value + " is not an integer or is too large");
+
+        return longValue;
+    }
+
+    private static JsonElement createStringElement(final String elementName, final String string) {
+        if (isAtMilliseconds(string))
+            return new JsonAtMillisecondsElement(elementName, new Timestamp(getMilliseconds(string)));
+
+        return new JsonStringElement(elementName, string);
+    }
+
+    // the number of milliseconds must fit in a long, otherwise the string is kept as a plain string
+    private static boolean isAtMilliseconds(final String string) {
+        final int length = string.length();
+        if (length < 3 || length > MAX_AT_MILLISECONDS_LENGTH
+                || string.charAt(0) != '@' || string.charAt(length - 1) != '@')
+            return false;
+
+        int index = 1;
+        final boolean negative = string.charAt(1) == '-';
+        if (negative)
+            ++index;
+        final int digits = length - 1 - index;
+        if (digits == 0 || digits > MAX_LONG_DIGITS)
+            return false;
+        for (int i = index; i < length - 1; ++i) {
+            final char c = string.charAt(i);
+            if (c < '0' || c > '9')
+                return false;
+        }
+
+        if (digits < MAX_LONG_DIGITS)
+            return true;
+        final String limit = negative ? LONG_MIN_DIGITS : LONG_MAX_DIGITS;
+        return string.substring(index, length - 1).compareTo(limit) <= 0;
+    }
+
+    private static long getMilliseconds(final String string) {
+        return Long.parseLong(string.substring(1, string.length() - 1));
+    }
+
+    /**
+     * Closes the underlying Reader, if any.
+     * @throws IOException if the underlying Reader throws an IOException.
+     */
+    @Override
+    public void close() throws IOException {
+        if (reader != null)
+            reader.close();
+    }
+
+    private JsonToken readToken() throws IOException {
+        final JsonToken token = readNextToken();
+        lastToken = token;
+        return token;
+    }
+
+    private JsonToken readNextToken() throws IOException {
+        int c;
+        switch (stack[depth]) {
+            case EMPTY_DOCUMENT:
+            case NONEMPTY_DOCUMENT:
+                stack[depth] = NONEMPTY_DOCUMENT;
+                c = readNonWhitespace();
+                if (c == -1)
+                    return JsonToken.END_DOCUMENT;
+                return readValue(c);
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                c = readNonWhitespace();
+                if (c == '}') {
+                    --depth;
+                    return JsonToken.END_OBJECT;
+                }
+                if (stack[depth] == NONEMPTY_OBJECT) {
+                    if (c != ',')
+                        throw syntaxError("Expected ',' or '}'");
+                    c = readNonWhitespace();
+                }
+                if (c != '"')
+                    throw syntaxError("Expected name");
+                readString();
+                name = value.toString();
+                if (readNonWhitespace() != ':')
+                    throw syntaxError("Expected ':'");
+                stack[depth] = DANGLING_NAME;
+                return JsonToken.NAME;
+            case DANGLING_NAME:
+                stack[depth] = NONEMPTY_OBJECT;
+                return readValue(readNonWhitespace());
+            case EMPTY_ARRAY:
+            case NONEMPTY_ARRAY:
+                c = readNonWhitespace();
+                if (c == ']') {
+                    --depth;
+                    return JsonToken.END_ARRAY;
+                }
+                if (stack[depth] == NONEMPTY_ARRAY) {
+                    if (c != ',')
+                        throw syntaxError("Expected ',' or ']'");
+                    c = readNonWhitespace();
+                }
+                stack[depth] = NONEMPTY_ARRAY;
+                return readValue(c);
+            default:
+                throw new IllegalStateException("Unknown scope: " + stack[depth]); // should never happen ...
+        }
+    }
+
+    private JsonToken readValue(final int c) throws IOException {
+        switch (c) {
+            case '{':
+                push(EMPTY_OBJECT);
+                return JsonToken.START_OBJECT;
+            case '[':
+                push(EMPTY_ARRAY);
+                return JsonToken.START_ARRAY;
+            case '"':
+                readString();
+                return JsonToken.STRING;
+            case 't':
+                readLiteral("rue");
+                return JsonToken.TRUE;
+            case 'f':
+                readLiteral("alse");
+                return JsonToken.FALSE;
+            case 'n':
+                readLiteral("ull");
+                return JsonToken.NULL;
+            case '-':
+            case '0': case '1': case '2': case '3': case '4':
+            case '5': case '6': case '7': case '8': case '9':
+                readNumber(c);
+                return JsonToken.NUMBER;
+            case -1:
+                throw syntaxError("Unexpected end of input");
+            default:
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private void push(final int scope) {
+        if (++depth == stack.length) {
+            final int[] newStack = new int[stack.length * 2];
+            System.arraycopy(stack, 0, newStack, 0, stack.length);
+            stack = newStack;
+        }
+        stack[depth] = scope;
+    }
+
+    private void readLiteral(final String rest) throws IOException {
+        for (int i = 0; i < rest.length(); ++i)
+            if (read() != rest.charAt(i))
+                throw syntaxError("Invalid literal");
+
+        final int c = read();
+        if (c != -1) {
+            if (Character.isLetterOrDigit(c))
+                throw syntaxError("Invalid literal");
+            --position;
+        }
+    }
+
+    private void readString() throws IOException {
+        value.setLength(0);
+        while (true) {
+            if (position == limit && !fill())
+                throw syntaxError("Unterminated string");
+
+            // copy runs of plain characters in bulk
+            final int start = position;
+            while (position < limit) {
+                final char c = buffer[position];
+                if (c == '"' || c == '\\' || c < 0x20)
+                    break;
+                ++position;
+            }
+            value.append(buffer, start, position - start);
+            if (position == limit)
+                continue;
+
+            final char c = buffer[position++];
+            if (c == '"')
+                return;
+            if (c != '\\')
+                throw syntaxError("Unescaped control character in string");
+
+            final int escaped = read();
+            switch (escaped) {
+                case '"':
+                case '\\':
+                case '/':
+                    value.append((char) escaped);
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'u':
+                    int codeUnit = 0;
+                    for (int i = 0; i < 4; ++i) {
+                        final int digit = Character.digit(read(), 16);
+                        if (digit == -1)
+                            throw syntaxError("Invalid unicode escape sequence");
+                        codeUnit = (codeUnit << 4) | digit;
+                    }
+                    value.append((char) codeUnit);
+                    break;
+                default:
+                    throw syntaxError("Invalid escape sequence");
+            }
+        }
+    }
+
+    private void readNumber(final int first) throws IOException {
+        value.setLength(0);
+        value.append((char) first);
+
+        final boolean negative = first == '-';
+        int c = negative ? read() : first;
+        if (negative) {
+            if (c < '0' || c > '9')
+                throw syntaxError("Invalid number");
+            value.append((char) c);
+        }
+
+        // integer part, accumulated as a negative number to accommodate Long.MIN_VALUE
+        integral = true;
+        long accumulator = -(c - '0');
+        if (c != '0') {
+            while ((c = read()) >= '0' && c <= '9') {
+                value.append((char) c);
+                final int digit = c - '0';
+                if (accumulator < (Long.MIN_VALUE + digit) / 10)
+                    integral = false;
+                accumulator = accumulator * 10 - digit;
+            }
+        } else {
+            c = read();
+        }
+
+        if (c == '.') {
+            integral = false;
+            value.append('.');
+            c = readDigits(true);
+        }
+        if (c == 'e' || c == 'E') {
+            integral = false;
+            value.append((char) c);
+            c = read();
+            if (c == '+' || c == '-') {
+                value.append((char) c);
+                c = read();
+            }
+            if (c < '0' || c > '9')
+                throw syntaxError("Invalid number");
+            value.append((char) c);
+            c = readDigits(false);
+        }
+
+        if (c != -1) {
+            if (Character.isLetterOrDigit(c) || c == '.' || c == '-' || c == '+')
+                throw syntaxError("Invalid number");
+            --position;
+        }
+
+        if (integral) {
+            if (negative)
+                longValue = accumulator;
+            else if (accumulator == Long.MIN_VALUE)
+                integral = false;
+            else
+                longValue = -accumulator;
+        }
+    }
+
+    private int readDigits(final boolean atLeastOne) throws IOException {
+        int c = read();
+        if (atLeastOne && (c < '0' || c > '9'))
+            throw syntaxError("Invalid number");
+        while (c >= '0' && c <= '9') {
+            value.append((char) c);
+            c = read();
+        }
+        return c;
+    }
+
+    private int readNonWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill())
+            return -1;
+
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        consumed += limit;
+        position = 0;
+        limit = 0;
+
+        if (reader != null) {
+            final int count = reader.read(buffer, 0, buffer.length);
+            if (count <= 0)
+                return false;
+            limit = count;
+            return true;
+        }
+
+        if (decoderFlushed)
+            return false;
+
+        final CharBuffer charBuffer = CharBuffer.wrap(buffer);
+        CoderResult result = decoder.decode(byteBuffer, charBuffer, true);
+        if (result.isUnderflow()) {
+            result = decoder.flush(charBuffer);
+            decoderFlushed = result.isUnderflow();
+        }
+        if (result.isError()) {
+            try {
+                result.throwException();
+            } catch (final CharacterCodingException ccex) {
+                throw new IllegalArgumentException("Invalid UTF-8 input", ccex);
+            }
+        }
+        limit = charBuffer.position();
+        return limit > 0;
+    }
+
+    private IllegalArgumentException syntaxError(final String message) {
+        return new IllegalArgumentException(message + " at character " + (consumed + position));
+    }
+
+    private final Reader reader;
+    private final ByteBuffer byteBuffer;
+    private final CharsetDecoder decoder;
+    private boolean decoderFlushed = false;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+    private long consumed = 0;
+
+    private int[] stack = new int[32];
+    private int depth = 0;
+
+    private JsonToken peeked;
+    private JsonToken lastToken;
+    private String name;
+    private final StringBuilder value = new StringBuilder();
+    private boolean integral;
+    private long longValue;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private static final int MAX_LONG_DIGITS = 19;
+    private static final String LONG_MAX_DIGITS = "9223372036854775807";
+    private static final String LONG_MIN_DIGITS = "9223372036854775808";
+    private static final int MAX_AT_MILLISECONDS_LENGTH = MAX_LONG_DIGITS + 3;  // two '@' and a sign
+}
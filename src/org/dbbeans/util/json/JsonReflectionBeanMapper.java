@@ -0,0 +1,367 @@
+package org.dbbeans.util.json;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+
+import java.io.IOException;
+
+import java.lang.ref.WeakReference;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * This class contains static functions that write JavaBeans as json objects, without building a
+ * {@link JsonObject}.
+ * <p>The first time a bean class is encountered, its properties are inspected and the list of its readable
+ * properties is cached. Later calls for the same class do not introspect the class again: the getters are invoked
+ * through reflection and their values written directly to the output, without creating JsonElements.</p>
+ * <p>Readable properties are mapped as follows, in alphabetical order:</p>
+ * <ul>
+ *     <li>String, char, Character and enums are written as strings;</li>
+ *     <li>long, int, short, byte and their wrapper classes are written as integers;</li>
+ *     <li>boolean and Boolean are written as booleans;</li>
+ *     <li>java.sql.Date, java.sql.Time and java.sql.Timestamp are written like {@link JsonDateElement},
+ *     {@link JsonTimeElement} and {@link JsonDateTimeElement};</li>
+ *     <li>JsonObject values are written as embedded objects;</li>
+ *     <li>null values are written as null.</li>
+ * </ul>
+ * <p>Properties of any other type are ignored. The elements returned by {@link #createObjectElement(String, Object)}
+ * and {@link #createArrayElement(String, List)} can also be written by {@link JsonCborOutput}, with the same
+ * mapping.</p>
+ */
+public class JsonReflectionBeanMapper {
+
+    /**
+     * Prints a JavaBean as a json object.
+     * @param bean to be printed.
+     * @param format the JsonFormat to use.
+     * @return a string representation of the bean.
+     */
+    public static String print(final Object bean, final JsonFormat format) {
+        final StringBuilder buf = new StringBuilder();
+
+        try {
+            writeTo(bean, buf, format, 0, true);
+        } catch (final IOException ioex) {
+            throw new RuntimeException(ioex); // should never happen with a StringBuilder ...
+        }
+
+        return buf.toString();
+    }
+
+    /**
+     * Writes a JavaBean as a json object directly to an Appendable.
+     * @param bean to be written.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
+     * @param indentLevel the indentation level to be applied to evey printed lines (i.e., how many tabs).
+     * @param initialTabs to indicate if the indentation level should be applied to the first line.
+     * @throws IOException if out throws an IOException.
+     * @throws RuntimeException if a getter throws an exception.
+     */
+    public static void writeTo(
+            final Object bean,
+            final Appendable out,
+            final JsonFormat format,
+            final int indentLevel,
+            final boolean initialTabs) throws IOException
+    {
+        final Property[] properties = getProperties(bean.getClass());
+
+        if (initialTabs)
+            format.writeIndent(out, indentLevel);
+        out.append('{');
+        format.writeNewLine(out);
+        final int last = properties.length - 1;
+        for (int i = 0; i <= last; ++i)
+            properties[i].writeTo(bean, out, format, indentLevel + 1, i == last);
+        format.writeIndent(out, indentLevel);
+        out.append('}');
+    }
+
+    // writes a JavaBean as a CBOR map, with the same mapping as the json output
+    private static void writeCbor(final Object bean, final JsonCborOutput out) throws IOException {
+        final Property[] properties = getProperties(bean.getClass());
+
+        out.writeMapHeader(properties.length);
+        for (Property property: properties)
+            property.writeCbor(bean, out);
+    }
+
+    /**
+     * Returns a JsonElement that writes a JavaBean as an embedded object. The bean is only read when the element
+     * is printed.
+     * @param name of the element.
+     * @param bean to be written.
+     * @return a JsonElement representing the bean.
+     */
+    public static JsonElement createObjectElement(final String name, final Object bean) {
+        return new BeanElement(name, bean);
+    }
+
+    /**
+     * Returns a JsonElement that writes a List of JavaBeans as an array of objects. The list is neither copied nor
+     * read before the element is printed.
+     * @param name of the element.
+     * @param beans to be written.
+     * @return a JsonElement representing the beans.
+     */
+    public static JsonElement createArrayElement(final String name, final List<?> beans) {
+        return new BeanArrayElement(name, beans);
+    }
+
+    private static Property[] getProperties(final Class<?> beanClass) {
+        Property[] properties = PROPERTIES.get(beanClass);
+        if (properties == null) {
+            properties = inspect(beanClass);
+            PROPERTIES.put(beanClass, properties);
+        }
+
+        return properties;
+    }
+
+    private static Property[] inspect(final Class<?> beanClass) {
+        final BeanInfo beanInfo;
+        try {
+            beanInfo = Introspector.getBeanInfo(beanClass, Object.class);
+        } catch (final IntrospectionException iex) {
+            throw new RuntimeException(iex);
+        }
+
+        final List<Property> properties = new ArrayList<Property>();
+        for (PropertyDescriptor descriptor: beanInfo.getPropertyDescriptors()) {
+            final Method getter = descriptor.getReadMethod();
+            if (getter == null)
+                continue;
+            final int type = getType(descriptor.getPropertyType());
+            if (type == UNSUPPORTED)
+                continue;
+            getter.setAccessible(true);
+            properties.add(new Property(descriptor.getName(), getter, type));
+        }
+        // the BeanInfo cached by the Introspector refers to the bean class, and is not needed anymore
+        Introspector.flushFromCaches(beanClass);
+
+        return properties.toArray(new Property[properties.size()]);
+    }
+
+    private static int getType(final Class<?> type) {
+        if (type == String.class || type == char.class || type == Character.class || type.isEnum())
+            return STRING;
+        if (type == long.class || type == int.class || type == short.class || type == byte.class
+                || type == Long.class || type == Integer.class || type == Short.class || type == Byte.class)
+            return INTEGER;
+        if (type == boolean.class || type == Boolean.class)
+            return BOOLEAN;
+        if (type == Date.class || type == Time.class || type == Timestamp.class)
+            return STRING;
+        if (type == JsonObject.class)
+            return OBJECT;
+
+        return UNSUPPORTED;
+    }
+
+    private static String getText(final Object value) {
+        if (value instanceof Enum)
+            return ((Enum<?>) value).name();
+
+        return value.toString();
+    }
+
+    private static class Property {
+
+        Property(final String name, final Method getter, final int type) {
+            final StringBuilder buf = new StringBuilder();
+            buf.append('"');
+            try {
+                JsonElement.writeEscaped(buf, name);
+            } catch (final IOException ioex) {
+                throw new RuntimeException(ioex); // should never happen with a StringBuilder ...
+            }
+            quotedName = buf.toString();
+            this.name = name;
+            getterName = getter.getName();
+            this.getter = new WeakReference<Method>(getter);
+            this.type = type;
+        }
+
+        Object getValue(final Object bean) {
+            try {
+                return getGetter(bean.getClass()).invoke(bean);
+            } catch (final IllegalAccessException iaex) {
+                throw new RuntimeException(iaex);
+            } catch (final InvocationTargetException itex) {
+                throw new RuntimeException(itex.getCause());
+            }
+        }
+
+        // the getter is looked up again by name if it has been garbage collected
+        private Method getGetter(final Class<?> beanClass) {
+            Method method = getter.get();
+            if (method == null) {
+                try {
+                    method = beanClass.getMethod(getterName);
+                } catch (final NoSuchMethodException nsmex) {
+                    throw new RuntimeException(nsmex); // should never happen, the getter was found by inspect ...
+                }
+                method.setAccessible(true);
+                getter = new WeakReference<Method>(method);
+            }
+
+            return method;
+        }
+
+        void writeTo(
+                final Object bean,
+                final Appendable out,
+                final JsonFormat format,
+                final int indentLevel,
+                final boolean isLast) throws IOException
+        {
+            final Object value = getValue(bean);
+
+            format.writeIndent(out, indentLevel);
+            out.append(quotedName);
+            format.writeNameSeparator(out);
+            if (value == null) {
+                out.append("null");
+            } else {
+                switch (type) {
+                    case STRING:
+                        JsonElement.writeString(out, getText(value));
+                        break;
+                    case INTEGER:
+                        JsonElement.writeLong(out, ((Number) value).longValue());
+                        break;
+                    case BOOLEAN:
+                        out.append(((Boolean) value) ? "true" : "false");
+                        break;
+                    case OBJECT:
+                        ((JsonObject) value).writeTo(out, format, indentLevel, false);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown type: " + type); // should never happen ...
+                }
+            }
+            JsonElement.writeEnd(out, format, isLast);
+        }
+
+        void writeCbor(final Object bean, final JsonCborOutput out) throws IOException {
+            final Object value = getValue(bean);
+
+            out.writeString(name);
+            if (value == null) {
+                out.writeNull();
+            } else {
+                switch (type) {
+                    case STRING:
+                        out.writeString(getText(value));
+                        break;
+                    case INTEGER:
+                        out.writeLong(((Number) value).longValue());
+                        break;
+                    case BOOLEAN:
+                        out.writeBoolean((Boolean) value);
+                        break;
+                    case OBJECT:
+                        ((JsonObject) value).writeCbor(out);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown type: " + type); // should never happen ...
+                }
+            }
+        }
+
+        private final String name;
+        private final String quotedName;
+        private final String getterName;
+        private volatile WeakReference<Method> getter;
+        private final int type;
+    }
+
+    private static class BeanElement extends JsonElement {
+
+        BeanElement(final String name, final Object bean) {
+            super(name);
+            this.bean = bean;
+        }
+
+        @Override
+        public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast)
+                throws IOException
+        {
+            writeName(out, format, indentLevel);
+            JsonReflectionBeanMapper.writeTo(bean, out, format, indentLevel, false);
+            writeEnd(out, format, isLast);
+        }
+
+        @Override
+        void writeCborValue(final JsonCborOutput out) throws IOException {
+            writeCbor(bean, out);
+        }
+
+        private final Object bean;
+    }
+
+    private static class BeanArrayElement extends JsonElement {
+
+        BeanArrayElement(final String name, final List<?> beans) {
+            super(name);
+            this.beans = beans;
+        }
+
+        @Override
+        public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast)
+                throws IOException
+        {
+            writeName(out, format, indentLevel);
+            out.append('[');
+            format.writeNewLine(out);
+            int index = 0;
+            final int max = beans.size();
+            for (Object bean: beans) {
+                index++;
+                JsonReflectionBeanMapper.writeTo(bean, out, format, indentLevel + 1, true);
+                if (index != max)
+                    out.append(',');
+                format.writeNewLine(out);
+            }
+            format.writeIndent(out, indentLevel);
+            out.append(']');
+            writeEnd(out, format, isLast);
+        }
+
+        @Override
+        void writeCborValue(final JsonCborOutput out) throws IOException {
+            out.writeArrayHeader(beans.size());
+            for (Object bean: beans)
+                writeCbor(bean, out);
+        }
+
+        private final List<?> beans;
+    }
+
+    // bean classes are weakly referenced and the properties only hold weak references to their getters, which
+    // refer to the bean class: the cache must not prevent the classes, and their class loaders, from being unloaded
+    private static final Map<Class<?>, Property[]> PROPERTIES =
+            Collections.synchronizedMap(new WeakHashMap<Class<?>, Property[]>());
+
+    private static final int UNSUPPORTED = 0;
+    private static final int STRING = 1;
+    private static final int INTEGER = 2;
+    private static final int BOOLEAN = 3;
+    private static final int OBJECT = 4;
+}
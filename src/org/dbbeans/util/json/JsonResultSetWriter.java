@@ -0,0 +1,394 @@
+package org.dbbeans.util.json;
+
+import java.io.IOException;
+
+import java.math.BigDecimal;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * This class writes the rows of a JDBC ResultSet as json objects, directly to an Appendable, as they are fetched.
+ * No JsonObject is created and only the current row is held in memory, so that queries of any size can be exported.
+ * <p>The ResultSetMetaData is read once, when the writer is created, and a writer specific to the type of each
+ * column is selected. Each row is written as a json object whose element names are the column labels:</p>
+ * <ul>
+ *     <li>CHAR, VARCHAR, CLOB and the other character types are written as strings;</li>
+ *     <li>TINYINT, SMALLINT, INTEGER, BIGINT, as well as NUMERIC and DECIMAL columns declared without fractional
+ *     digits and with a precision of at most 18 digits, are written as integers;</li>
+ *     <li>BIT and BOOLEAN are written as booleans;</li>
+ *     <li>DATE, TIME and TIMESTAMP are written like {@link JsonDateElement}, {@link JsonTimeElement} and
+ *     {@link JsonDateTimeElement};</li>
+ *     <li>other numeric types, including NUMERIC and DECIMAL columns whose values might not fit in a long, are
+ *     written as strings, as the json package has no element type for decimal values or big integers;</li>
+ *     <li>SQL NULL values are written as null, like {@link JsonNullElement}.</li>
+ * </ul>
+ * <p>The representation is chosen for each column, not for each value: all the values of a column are written
+ * the same way, in json and in CBOR. Columns of any other type (binary data, arrays, etc.) are ignored. The element
+ * returned by {@link #createArrayElement(String)} can also be written by {@link JsonCborOutput}, with the same
+ * mapping.</p>
+ * <p>This class is not thread safe.</p>
+ */
+public class JsonResultSetWriter {
+
+    /**
+     * Creates a writer for the rows of a ResultSet.
+     * @param resultSet whose rows are to be written.
+     * @throws SQLException if the ResultSetMetaData cannot be read.
+     */
+    public JsonResultSetWriter(final ResultSet resultSet) throws SQLException {
+        this.resultSet = resultSet;
+
+        final ResultSetMetaData metaData = resultSet.getMetaData();
+        final int columnCount = metaData.getColumnCount();
+        final Column[] allColumns = new Column[columnCount];
+        int count = 0;
+        for (int index = 1; index <= columnCount; ++index) {
+            final int type = getType(metaData.getColumnType(index), metaData.getPrecision(index),
+                    metaData.getScale(index));
+            if (type != UNSUPPORTED)
+                allColumns[count++] = new Column(metaData.getColumnLabel(index), index, type);
+        }
+
+        columns = new Column[count];
+        System.arraycopy(allColumns, 0, columns, 0, count);
+    }
+
+    /**
+     * Writes the current row of the ResultSet as a json object.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
+     * @param indentLevel the indentation level to be applied to evey printed lines (i.e., how many tabs).
+     * @param initialTabs to indicate if the indentation level should be applied to the first line.
+     * @throws IOException if out throws an IOException.
+     * @throws SQLException if a value cannot be read from the ResultSet.
+     */
+    public void writeRow(
+            final Appendable out,
+            final JsonFormat format,
+            final int indentLevel,
+            final boolean initialTabs) throws IOException, SQLException
+    {
+        if (initialTabs)
+            format.writeIndent(out, indentLevel);
+        out.append('{');
+        format.writeNewLine(out);
+        final int last = columns.length - 1;
+        for (int i = 0; i <= last; ++i)
+            columns[i].writeTo(resultSet, out, format, indentLevel + 1, i == last);
+        format.writeIndent(out, indentLevel);
+        out.append('}');
+    }
+
+    /**
+     * Writes all the remaining rows of the ResultSet as an array of json objects. The rows are fetched and written
+     * one by one.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
+     * @param indentLevel the indentation level of the closing bracket, the objects being indented one level further.
+     * @return the number of rows written.
+     * @throws IOException if out throws an IOException.
+     * @throws SQLException if the rows cannot be read from the ResultSet.
+     */
+    public long writeArray(final Appendable out, final JsonFormat format, final int indentLevel)
+            throws IOException, SQLException
+    {
+        long count = 0;
+
+        out.append('[');
+        format.writeNewLine(out);
+        while (resultSet.next()) {
+            if (count > 0) {
+                out.append(',');
+                format.writeNewLine(out);
+            }
+            writeRow(out, format, indentLevel + 1, true);
+            ++count;
+        }
+        if (count > 0)
+            format.writeNewLine(out);
+        format.writeIndent(out, indentLevel);
+        out.append(']');
+
+        return count;
+    }
+
+    /**
+     * Writes all the remaining rows of the ResultSet in the newline delimited json format: each row is written in
+     * {@link JsonFormat#COMPACT} format, on its own line.
+     * @param out the Appendable to write to.
+     * @return the number of rows written.
+     * @throws IOException if out throws an IOException.
+     * @throws SQLException if the rows cannot be read from the ResultSet.
+     * @see NdJsonWriter
+     */
+    public long writeNdJson(final Appendable out) throws IOException, SQLException {
+        long count = 0;
+
+        while (resultSet.next()) {
+            writeRow(out, JsonFormat.COMPACT, 0, false);
+            out.append('\n');
+            ++count;
+        }
+
+        return count;
+    }
+
+    // writes the current row as a CBOR map, with the same mapping as the json output
+    private void writeCborRow(final JsonCborOutput out) throws IOException, SQLException {
+        out.writeMapHeader(columns.length);
+        for (Column column: columns)
+            column.writeCbor(resultSet, out);
+    }
+
+    // writes the remaining rows as an indefinite length CBOR array, since their number is not known in advance
+    private void writeCborArray(final JsonCborOutput out) throws IOException, SQLException {
+        out.writeIndefiniteArrayHeader();
+        while (resultSet.next())
+            writeCborRow(out);
+        out.writeBreak();
+    }
+
+    /**
+     * Returns a JsonElement that writes the remaining rows of the ResultSet as an array of objects, so that a query
+     * can be streamed as part of a larger document. The rows are only fetched when the element is printed, and
+     * can therefore be printed only once.
+     * @param name of the element.
+     * @return a JsonElement representing the rows of the ResultSet.
+     */
+    public JsonElement createArrayElement(final String name) {
+        return new ResultSetElement(name);
+    }
+
+    private static int getType(final int sqlType, final int precision, final int scale) {
+        switch (sqlType) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return STRING;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return INTEGER;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                // a precision of 0 means that it is unknown
+                return scale == 0 && precision > 0 && precision <= MAX_LONG_DIGITS ? INTEGER : DECIMAL;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return STRING;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return BOOLEAN;
+            case Types.DATE:
+                return DATE;
+            case Types.TIME:
+                return TIME;
+            case Types.TIMESTAMP:
+                return TIMESTAMP;
+            default:
+                return UNSUPPORTED;
+        }
+    }
+
+    private static class Column {
+
+        Column(final String name, final int index, final int type) {
+            final StringBuilder buf = new StringBuilder();
+            buf.append('"');
+            try {
+                JsonElement.writeEscaped(buf, name);
+            } catch (final IOException ioex) {
+                throw new RuntimeException(ioex); // should never happen with a StringBuilder ...
+            }
+            quotedName = buf.toString();
+            this.name = name;
+            this.index = index;
+            this.type = type;
+        }
+
+        void writeTo(
+                final ResultSet resultSet,
+                final Appendable out,
+                final JsonFormat format,
+                final int indentLevel,
+                final boolean isLast) throws IOException, SQLException
+        {
+            format.writeIndent(out, indentLevel);
+            out.append(quotedName);
+            format.writeNameSeparator(out);
+            switch (type) {
+                case STRING:
+                    final String string = resultSet.getString(index);
+                    if (string == null)
+                        out.append("null");
+                    else
+                        JsonElement.writeString(out, string);
+                    break;
+                case INTEGER:
+                    final long value = resultSet.getLong(index);
+                    if (resultSet.wasNull())
+                        out.append("null");
+                    else
+                        JsonElement.writeLong(out, value);
+                    break;
+                case DECIMAL:
+                    final BigDecimal decimal = resultSet.getBigDecimal(index);
+                    if (decimal == null)
+                        out.append("null");
+                    else
+                        JsonElement.writeString(out, decimal.toPlainString());
+                    break;
+                case BOOLEAN:
+                    final boolean flag = resultSet.getBoolean(index);
+                    if (resultSet.wasNull())
+                        out.append("null");
+                    else
+                        out.append(flag ? "true" : "false");
+                    break;
+                case DATE:
+                    final Date date = resultSet.getDate(index);
+                    if (date == null)
+                        out.append("null");
+                    else
+                        JsonElement.writeString(out, date.toString());
+                    break;
+                case TIME:
+                    final Time time = resultSet.getTime(index);
+                    if (time == null)
+                        out.append("null");
+                    else
+                        JsonElement.writeString(out, time.toString());
+                    break;
+                case TIMESTAMP:
+                    final Timestamp timestamp = resultSet.getTimestamp(index);
+                    if (timestamp == null)
+                        out.append("null");
+                    else
+                        JsonElement.writeString(out, timestamp.toString());
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown type: " + type); // should never happen ...
+            }
+            JsonElement.writeEnd(out, format, isLast);
+        }
+
+        void writeCbor(final ResultSet resultSet, final JsonCborOutput out) throws IOException, SQLException {
+            out.writeString(name);
+            switch (type) {
+                case STRING:
+                    final String string = resultSet.getString(index);
+                    if (string == null)
+                        out.writeNull();
+                    else
+                        out.writeString(string);
+                    break;
+                case INTEGER:
+                    final long value = resultSet.getLong(index);
+                    if (resultSet.wasNull())
+                        out.writeNull();
+                    else
+                        out.writeLong(value);
+                    break;
+                case DECIMAL:
+                    final BigDecimal decimal = resultSet.getBigDecimal(index);
+                    if (decimal == null)
+                        out.writeNull();
+                    else
+                        out.writeString(decimal.toPlainString());
+                    break;
+                case BOOLEAN:
+                    final boolean flag = resultSet.getBoolean(index);
+                    if (resultSet.wasNull())
+                        out.writeNull();
+                    else
+                        out.writeBoolean(flag);
+                    break;
+                case DATE:
+                    final Date date = resultSet.getDate(index);
+                    if (date == null)
+                        out.writeNull();
+                    else
+                        out.writeString(date.toString());
+                    break;
+                case TIME:
+                    final Time time = resultSet.getTime(index);
+                    if (time == null)
+                        out.writeNull();
+                    else
+                        out.writeString(time.toString());
+                    break;
+                case TIMESTAMP:
+                    final Timestamp timestamp = resultSet.getTimestamp(index);
+                    if (timestamp == null)
+                        out.writeNull();
+                    else
+                        out.writeString(timestamp.toString());
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown type: " + type); // should never happen ...
+            }
+        }
+
+        private final String name;
+        private final String quotedName;
+        private final int index;
+        private final int type;
+    }
+
+    private class ResultSetElement extends JsonElement {
+
+        ResultSetElement(final String name) {
+            super(name);
+        }
+
+        @Override
+        public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast)
+                throws IOException
+        {
+            writeName(out, format, indentLevel);
+            try {
+                writeArray(out, format, indentLevel);
+            } catch (final SQLException sqlex) {
+                throw new RuntimeException(sqlex);
+            }
+            writeEnd(out, format, isLast);
+        }
+
+        @Override
+        void writeCborValue(final JsonCborOutput out) throws IOException {
+            try {
+                writeCborArray(out);
+            } catch (final SQLException sqlex) {
+                throw new RuntimeException(sqlex);
+            }
+        }
+    }
+
+    private final ResultSet resultSet;
+    private final Column[] columns;
+
+    private static final int UNSUPPORTED = 0;
+    private static final int STRING = 1;
+    private static final int INTEGER = 2;
+    private static final int DECIMAL = 3;
+    private static final int BOOLEAN = 4;
+    private static final int DATE = 5;
+    private static final int TIME = 6;
+    private static final int TIMESTAMP = 7;
+
+    // all the numbers with at most 18 digits fit in a long
+    private static final int MAX_LONG_DIGITS = 18;
+}
@@ -1,5 +1,7 @@
 package org.dbbeans.util.json;
 
+import java.io.IOException;
+
 /**
  * This class represents a json element with a string value.
  */
@@ -16,32 +18,52 @@ public class JsonStringElement extends JsonElement {
 	}
 
     /**
-     * Prints this JsonElement. This function is usually called from the {@link JsonObject#print(int, boolean)}
-     * function of the enclosing JsonObject.
+     * Creates the json element and gives it a name. This constructor is meant for subclasses that keep their value
+     * in another form and convert it only when the element is printed, by overriding {@link #getValue()}.
+     * @param name of the element.
+     */
+	protected JsonStringElement(final String name) {
+		this(name, null);
+	}
+
+    /**
+     * Writes this JsonElement. This function is usually called from the
+     * {@link JsonObject#writeTo(Appendable, JsonFormat, int, boolean)} function of the enclosing JsonObject.
+     * @param out the Appendable to write to.
+     * @param format the JsonFormat to use.
      * @param indentLevel the indentation level (how many tabs).
      * @param isLast must be true if this element is the last one in the json object, to prevent this function
      *               to print an extra comma.
-     * @return a representation of this JsonElement.
+     * @throws IOException if out throws an IOException.
      */
 	@Override
-	public String print(final int indentLevel, final boolean isLast) {
-		final String tabs = getTabs(indentLevel);
-		
-		final StringBuilder buf = new StringBuilder();
-		
-		buf.append(tabs);
-		buf.append("\"");
-		buf.append(getName());
-		buf.append("\" : \"");
-		buf.append(value);
-		buf.append("\"");
-		if (!isLast)
-			buf.append(",");
-		buf.append("\n");
-		
-		return buf.toString();
+	public void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast)
+			throws IOException
+	{
+		writeName(out, format, indentLevel);
+		writeString(out, getValue());
+		writeEnd(out, format, isLast);
 	}
 	
+    /**
+     * Returns the value of this element, as it will be printed.
+     * @return the value of this element.
+     */
+	protected String getValue() {
+		return value;
+	}
+
+    /**
+     * Writes the value of this JsonElement in CBOR. A null value is written as the string "null", like in the json
+     * output.
+     * @param out the JsonCborOutput to write to.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     */
+	@Override
+	void writeCborValue(final JsonCborOutput out) throws IOException {
+		out.writeString(String.valueOf(getValue()));
+	}
+
 	private final String value;
 }
 
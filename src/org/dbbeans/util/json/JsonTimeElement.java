@@ -11,9 +11,23 @@ public class JsonTimeElement extends JsonStringElement {
      * Creates the json element and gives it a name and value.
      * @param name of the element.
      * @param value of the element.
+     * @throws NullPointerException if value is null.
      */
 	public JsonTimeElement(final String name, final Time value) {
-		super(name, value.toString());
+		super(name);
+		if (value == null)
+			throw new NullPointerException("No value for element: " + name);
+		this.value = value;
+	}
+
+    /**
+     * Returns the value of this element, formatted only when the element is printed.
+     * @return the value of this element as a string.
+     */
+	@Override
+	protected String getValue() {
+		return value.toString();
 	}
-}
 
+	private final Time value;
+}
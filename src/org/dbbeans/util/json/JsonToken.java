@@ -0,0 +1,8 @@
+package org.dbbeans.util.json;
+
+/**
+ * This enum lists the tokens returned by {@link JsonReader}.
+ */
+public enum JsonToken {
+    START_OBJECT, END_OBJECT, START_ARRAY, END_ARRAY, NAME, STRING, NUMBER, TRUE, FALSE, NULL, END_DOCUMENT
+}
@@ -0,0 +1,241 @@
+package org.dbbeans.util.json;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class is an Appendable that encodes the characters it receives in UTF-8 and writes the resulting bytes
+ * directly to an OutputStream or a ByteBuffer. It allows a {@link JsonObject} to be written to a socket or a
+ * servlet OutputStream without going through a Writer and a charset encoder.
+ * <p>The bytes are accumulated in an internal buffer: {@link #flush()} must be called once the document
+ * is complete.</p>
+ * <p>ASCII characters, which make up most json documents, are copied straight into the internal buffer and
+ * numerical values written via {@link #appendLong(long)} are converted to digits without creating any
+ * intermediate String.</p>
+ * <p>This class is not thread safe.</p>
+ */
+public class JsonUtf8Output implements Appendable, Flushable {
+
+    /**
+     * Creates an output that writes to an OutputStream.
+     * @param outputStream to write to.
+     */
+    public JsonUtf8Output(final OutputStream outputStream) {
+        this(outputStream, null, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates an output that writes to an OutputStream, with a specific internal buffer size.
+     * @param outputStream to write to.
+     * @param bufferSize size of the internal buffer in bytes, must be at least 32.
+     */
+    public JsonUtf8Output(final OutputStream outputStream, final int bufferSize) {
+        this(outputStream, null, bufferSize);
+    }
+
+    /**
+     * Creates an output that writes to a ByteBuffer. The ByteBuffer can be reused between documents: once the
+     * output has been flushed, the ByteBuffer can be flipped, read and cleared as usual.
+     * @param byteBuffer to write to.
+     * @throws java.nio.BufferOverflowException, on flush, if the document does not fit in the ByteBuffer.
+     */
+    public JsonUtf8Output(final ByteBuffer byteBuffer) {
+        this(null, byteBuffer, DEFAULT_BUFFER_SIZE);
+    }
+
+    private JsonUtf8Output(final OutputStream outputStream, final ByteBuffer byteBuffer, final int bufferSize) {
+        if (bufferSize < MIN_BUFFER_SIZE)
+            throw new IllegalArgumentException("bufferSize < " + MIN_BUFFER_SIZE + " / bufferSize = " + bufferSize);
+
+        this.outputStream = outputStream;
+        this.byteBuffer = byteBuffer;
+        buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public JsonUtf8Output append(final CharSequence csq) throws IOException {
+        if (csq == null)
+            return append("null");
+
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public JsonUtf8Output append(final CharSequence csq, final int start, final int end) throws IOException {
+        if (csq == null)
+            return append("null", start, end);
+
+        int index = start;
+        while (index < end) {
+            if (pendingHighSurrogate == 0) {
+                // ASCII fast path
+                int count = Math.min(end - index, buffer.length - position);
+                if (count == 0) {
+                    flushBuffer();
+                    count = Math.min(end - index, buffer.length);
+                }
+                final int max = index + count;
+                while (index < max) {
+                    final char c = csq.charAt(index);
+                    if (c >= 0x80)
+                        break;
+                    buffer[position++] = (byte) c;
+                    ++index;
+                }
+                if (index == end)
+                    break;
+            }
+            writeChar(csq.charAt(index));
+            ++index;
+        }
+
+        return this;
+    }
+
+    @Override
+    public JsonUtf8Output append(final char c) throws IOException {
+        writeChar(c);
+        return this;
+    }
+
+    /**
+     * Writes the decimal representation of a long value, without creating any intermediate String.
+     * @param value to be written.
+     * @return this output.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     */
+    public JsonUtf8Output appendLong(final long value) throws IOException {
+        if (value == Long.MIN_VALUE)
+            return append(Long.toString(value));
+
+        if (buffer.length - position < MAX_LONG_LENGTH)
+            flushBuffer();
+        if (pendingHighSurrogate != 0) {
+            pendingHighSurrogate = 0;
+            buffer[position++] = '?';
+        }
+
+        long remainder = value;
+        if (remainder < 0) {
+            buffer[position++] = '-';
+            remainder = -remainder;
+        }
+
+        int digits = 1;
+        for (long limit = 10; digits < 19 && remainder >= limit; limit *= 10)
+            ++digits;
+
+        int index = position + digits;
+        position = index;
+        do {
+            buffer[--index] = (byte) ('0' + (remainder % 10));
+            remainder /= 10;
+        } while (remainder != 0);
+
+        return this;
+    }
+
+    /**
+     * Writes all buffered bytes to the underlying OutputStream or ByteBuffer. If the output writes to an
+     * OutputStream, the OutputStream is also flushed. A high surrogate that has not been followed by its low
+     * surrogate yet is written as '?', like any other lone surrogate.
+     * @throws IOException if the underlying OutputStream throws an IOException.
+     * @throws java.nio.BufferOverflowException if the underlying ByteBuffer is full.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (pendingHighSurrogate != 0) {
+            pendingHighSurrogate = 0;
+            if (position == buffer.length)
+                flushBuffer();
+            buffer[position++] = '?';
+        }
+        flushBuffer();
+        if (outputStream != null)
+            outputStream.flush();
+    }
+
+    // writes bytes that are already encoded in UTF-8, like the fragments memoized by a JsonFragmentCache
+    void writeUtf8(final byte[] bytes) throws IOException {
+        if (pendingHighSurrogate != 0) {
+            pendingHighSurrogate = 0;
+            if (position == buffer.length)
+                flushBuffer();
+            buffer[position++] = '?';
+        }
+
+        if (buffer.length - position < bytes.length) {
+            flushBuffer();
+            if (buffer.length < bytes.length) {
+                if (outputStream != null)
+                    outputStream.write(bytes);
+                else
+                    byteBuffer.put(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeChar(final char c) throws IOException {
+        if (buffer.length - position < 4)
+            flushBuffer();
+
+        if (pendingHighSurrogate != 0) {
+            final char highSurrogate = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                final int codePoint = Character.toCodePoint(highSurrogate, c);
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            buffer[position++] = '?';
+            if (buffer.length - position < 3)
+                flushBuffer();
+        }
+
+        if (c < 0x80) {
+            buffer[position++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            pendingHighSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buffer[position++] = '?';
+        } else {
+            buffer[position++] = (byte) (0xE0 | (c >> 12));
+            buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position == 0)
+            return;
+
+        if (outputStream != null)
+            outputStream.write(buffer, 0, position);
+        else
+            byteBuffer.put(buffer, 0, position);
+
+        position = 0;
+    }
+
+    private final OutputStream outputStream;
+    private final ByteBuffer byteBuffer;
+    private final byte[] buffer;
+    private int position = 0;
+    private char pendingHighSurrogate = 0;
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int MIN_BUFFER_SIZE = 32;
+    private static final int MAX_LONG_LENGTH = 21;
+}
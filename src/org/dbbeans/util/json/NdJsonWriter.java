@@ -0,0 +1,166 @@
+package org.dbbeans.util.json;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import java.util.Iterator;
+
+/**
+ * This class writes {@link JsonObject}s in the newline delimited json format (NDJSON): each object is printed in
+ * {@link JsonFormat#COMPACT} format, on its own line. Objects are written one by one as they are received, so
+ * exporting a large result set only requires one record to be kept in memory at any time.
+ * <p>Output is buffered and flushed every <code>flushInterval</code> objects, as well as when
+ * {@link #flush()} or {@link #close()} are called.</p>
+ * <p>Elements that only implement {@link JsonElement#print(int, boolean)} are printed in the pretty format, from
+ * which the line breaks and indentation are removed: they must escape any line break in their string values, or
+ * the record would span several lines.</p>
+ * <p>This class is not thread safe.</p>
+ */
+public class NdJsonWriter implements Flushable, Closeable {
+
+    /**
+     * Creates an NdJsonWriter that writes to a Writer and flushes it every {@link #DEFAULT_FLUSH_INTERVAL} objects.
+     * @param writer to write to.
+     */
+    public NdJsonWriter(final Writer writer) {
+        this(writer, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Creates an NdJsonWriter that writes to a Writer.
+     * @param writer to write to.
+     * @param flushInterval number of objects after which the output is flushed, 0 to flush only when
+     *                      {@link #flush()} or {@link #close()} are called.
+     */
+    public NdJsonWriter(final Writer writer, final int flushInterval) {
+        this(writer instanceof BufferedWriter ? writer : new BufferedWriter(writer), writer, flushInterval);
+    }
+
+    /**
+     * Creates an NdJsonWriter that writes UTF-8 bytes to an OutputStream and flushes it every
+     * {@link #DEFAULT_FLUSH_INTERVAL} objects.
+     * @param outputStream to write to.
+     */
+    public NdJsonWriter(final OutputStream outputStream) {
+        this(outputStream, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Creates an NdJsonWriter that writes UTF-8 bytes to an OutputStream.
+     * @param outputStream to write to.
+     * @param flushInterval number of objects after which the output is flushed, 0 to flush only when
+     *                      {@link #flush()} or {@link #close()} are called.
+     * @see JsonUtf8Output
+     */
+    public NdJsonWriter(final OutputStream outputStream, final int flushInterval) {
+        this(new JsonUtf8Output(outputStream), outputStream, flushInterval);
+    }
+
+    /**
+     * Creates an NdJsonWriter that writes UTF-8 bytes to a channel.
+     * @param channel to write to.
+     * @param flushInterval number of objects after which the output is flushed, 0 to flush only when
+     *                      {@link #flush()} or {@link #close()} are called.
+     */
+    public NdJsonWriter(final WritableByteChannel channel, final int flushInterval) {
+        this(Channels.newOutputStream(channel), flushInterval);
+    }
+
+    private NdJsonWriter(final Appendable out, final Closeable closeable, final int flushInterval) {
+        if (flushInterval < 0)
+            throw new IllegalArgumentException("flushInterval < 0 / flushInterval = " + flushInterval);
+
+        this.out = out;
+        this.closeable = closeable;
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Writes a JsonObject on its own line.
+     * @param jsonObject to be written.
+     * @throws IOException if the underlying output throws an IOException.
+     */
+    public void write(final JsonObject jsonObject) throws IOException {
+        jsonObject.writeTo(out, JsonFormat.COMPACT, 0, false);
+        out.append('\n');
+
+        ++count;
+        if (flushInterval > 0 && count % flushInterval == 0)
+            flush();
+    }
+
+    /**
+     * Writes all the JsonObjects returned by an Iterator, one after the other. The JsonObjects can be created
+     * on the fly by the Iterator, so that only one of them needs to exist at any time.
+     * @param jsonObjects to be written.
+     * @return the number of JsonObjects written.
+     * @throws IOException if the underlying output throws an IOException.
+     */
+    public long write(final Iterator<JsonObject> jsonObjects) throws IOException {
+        long written = 0;
+        while (jsonObjects.hasNext()) {
+            write(jsonObjects.next());
+            ++written;
+        }
+
+        return written;
+    }
+
+    /**
+     * Writes all the JsonObjects of an Iterable, one after the other.
+     * @param jsonObjects to be written.
+     * @return the number of JsonObjects written.
+     * @throws IOException if the underlying output throws an IOException.
+     * @see #write(Iterator)
+     */
+    public long write(final Iterable<JsonObject> jsonObjects) throws IOException {
+        return write(jsonObjects.iterator());
+    }
+
+    /**
+     * Returns how many JsonObjects were written so far.
+     * @return the number of JsonObjects written.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Flushes all buffered output.
+     * @throws IOException if the underlying output throws an IOException.
+     */
+    @Override
+    public void flush() throws IOException {
+        ((Flushable) out).flush();
+    }
+
+    /**
+     * Flushes all buffered output and closes the underlying Writer, OutputStream or channel.
+     * @throws IOException if the underlying output throws an IOException.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            closeable.close();
+        }
+    }
+
+    /**
+     * By default, the output is flushed every 1000 objects.
+     */
+    public static final int DEFAULT_FLUSH_INTERVAL = 1000;
+
+    private final Appendable out;
+    private final Closeable closeable;
+    private final int flushInterval;
+    private long count = 0;
+}
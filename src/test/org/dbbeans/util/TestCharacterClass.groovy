@@ -0,0 +1,34 @@
+package test.org.dbbeans.util
+
+import org.dbbeans.util.CharacterClass
+import org.dbbeans.util.CharacterLists
+
+class TestCharacterClass extends GroovyTestCase {
+
+    void testMembership() {
+        final CharacterClass characterClass = new CharacterClass("ab😀")
+        assertTrue(characterClass.contains('a' as char))
+        assertFalse(characterClass.contains('c' as char))
+        assertTrue(characterClass.contains(0x1F600))
+        assertFalse(characterClass.contains(-1))
+        assertEquals(3, characterClass.size())
+        assertEquals(2, characterClass.indexIn("xyb", 0))
+        assertEquals(-1, characterClass.indexIn("xyz", 0))
+    }
+
+    void testCharacterLists() {
+        assertTrue(CharacterLists.ACCENTED_CHARACTER_CLASS.contains('é' as char))
+        assertFalse(CharacterLists.ACCENTED_CHARACTER_CLASS.contains('e' as char))
+        assertTrue(CharacterLists.URL_RESERVED_CHARACTER_CLASS.contains('?' as char))
+        assertTrue(CharacterLists.URL_UNRESERVED_CHARACTER_CLASS.contains('~' as char))
+        assertFalse(CharacterLists.URL_UNRESERVED_CHARACTER_CLASS.contains(' ' as char))
+        assertEquals(CharacterLists.ACCENTED_CHARACTER_LIST.size(), CharacterLists.ACCENTED_CHARACTER_CLASS.size())
+    }
+
+    void testUnaccentedCharacter() {
+        assertEquals('e' as char, CharacterLists.getUnaccentedCharacter('ê' as char))
+        assertEquals('N' as char, CharacterLists.getUnaccentedCharacter('Ñ' as char))
+        assertEquals('x' as char, CharacterLists.getUnaccentedCharacter('x' as char))
+        assertEquals('€' as char, CharacterLists.getUnaccentedCharacter('€' as char))
+    }
+}
@@ -0,0 +1,32 @@
+package test.org.dbbeans.util
+
+import org.dbbeans.util.CharacterTranslator
+import org.dbbeans.util.Strings
+
+class TestCharacterTranslator extends GroovyTestCase {
+
+    void testTranslation() {
+        final CharacterTranslator translator = new CharacterTranslator("ab", "xy", ['c' as Character: "zz"])
+        assertEquals("xyzzd", translator.translate("abcd"))
+        assertEquals("yx", translator.translate("ba"))
+    }
+
+    void testNoCopy() {
+        final String text = "Nothing to change here"
+        assertSame(text, new CharacterTranslator("xyz", "XYZ").translate(text))
+        assertSame(text, Strings.getUnaccentedString(text))
+    }
+
+    void testLengthMismatch() {
+        shouldFail(IllegalArgumentException) {
+            new CharacterTranslator("ab", "x")
+        }
+    }
+
+    void testUnaccenting() {
+        assertEquals("Ecole a Sao Paulo", Strings.getUnaccentedString("École à São Paulo"))
+        assertEquals("Strasse, AEsir, oeuvre", Strings.getUnaccentedString("Straße, Æsir, œuvre"))
+        assertEquals("Ecole", Strings.getUnaccentedString("École", "É", "E"))
+        assertEquals("axb", Strings.getUnaccentedString("a.b", ".", "x"))
+    }
+}
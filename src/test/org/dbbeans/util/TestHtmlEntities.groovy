@@ -0,0 +1,35 @@
+package test.org.dbbeans.util
+
+import org.dbbeans.util.HTMLText
+
+class TestHtmlEntities extends GroovyTestCase {
+
+    void testEscapeToAccents() {
+        assertEquals("Café &amp; crème &#233;", HTMLText.escapeToAccents("Caf&eacute; &amp; cr&egrave;me &#233;"))
+        assertEquals("&&Ñ", HTMLText.escapeToAccents("&&&Ntilde;"))
+
+        final String noEntity = "Nothing to decode; really"
+        assertSame(noEntity, HTMLText.escapeToAccents(noEntity))
+    }
+
+    void testNumberToEscape() {
+        assertEquals("&eacute;&eacute;&eacute; &#8364;", HTMLText.numberToEscape("&#233;&#xE9;&#xe9; &#8364;"))
+    }
+
+    void testDecodeEntities() {
+        assertEquals("<é> € ϑ 😀", HTMLText.decodeEntities("&lt;&eacute;&gt; &euro; &thetasym; &#x1F600;"))
+        assertEquals("&bogus; &#; &#x; &#1114112;", HTMLText.decodeEntities("&bogus; &#; &#x; &#1114112;"))
+    }
+
+    void testAccentsToEscape() {
+        assertEquals("Caf&eacute; &amp; cr&egrave;me &euro; &lt;b&gt;", HTMLText.accentsToEscape("Café &amp; crème € &lt;b&gt;"))
+
+        final String ascii = "Plain <ASCII> & text"
+        assertSame(ascii, HTMLText.accentsToEscape(ascii))
+        assertNull(HTMLText.accentsToEscape(null))
+
+        final StringBuilder buf = new StringBuilder()
+        HTMLText.accentsToEscape(new StringBuilder("Ñandú"), buf)
+        assertEquals("&Ntilde;and&uacute;", buf.toString())
+    }
+}
@@ -0,0 +1,55 @@
+package test.org.dbbeans.util
+
+import org.dbbeans.util.HTMLText
+import org.dbbeans.util.HtmlEscapingWriter
+
+class TestHtmlEscaping extends GroovyTestCase {
+
+    void testStrings() {
+        assertEquals("&lt;a href=&quot;x&quot;&gt;Tom &amp; Jerry&#039;s&lt;/a&gt;",
+                HTMLText.escapeHTMLtext("<a href=\"x\">Tom & Jerry's</a>"))
+        assertEquals("&lt;a href=\"x\"&gt;Tom &amp; Jerry's&lt;/a&gt;",
+                HTMLText.escapeEssentialHTMLtext("<a href=\"x\">Tom & Jerry's</a>"))
+
+        final String safe = "Nothing to escape"
+        assertSame(safe, HTMLText.escapeHTMLtext(safe))
+    }
+
+    void testAppendable() {
+        final StringBuilder buf = new StringBuilder("<p>")
+        HTMLText.escapeHTMLtext(new StringBuilder("a\\b <c>"), buf)
+        assertEquals("<p>a&#092;b &lt;c&gt;", buf.toString())
+    }
+
+    void testWriter() {
+        final StringWriter stringWriter = new StringWriter()
+        final Writer writer = new HtmlEscapingWriter(stringWriter)
+        writer.write("1 < 2")
+        writer.write(" & 'x'".toCharArray())
+        writer.write((int) '>')
+        writer.flush()
+        assertEquals("1 &lt; 2 &amp; &#039;x&#039;&gt;", stringWriter.toString())
+
+        final StringWriter essentialWriter = new StringWriter()
+        new HtmlEscapingWriter(essentialWriter, true).append("'<'").flush()
+        assertEquals("'&lt;'", essentialWriter.toString())
+    }
+
+    void testLinefeed2br() {
+        assertEquals("a<br/>b<br/>c<br/><br/>d", HTMLText.linefeed2br("a\r\nb\rc\n\nd\n"))
+        assertEquals("", HTMLText.linefeed2br("\n"))
+
+        final StringBuilder buf = new StringBuilder()
+        HTMLText.linefeed2br("1 < 2\r\n3 > 2", buf, true)
+        assertEquals("1 &lt; 2<br/>3 &gt; 2", buf.toString())
+    }
+
+    void testBrList() {
+        assertEquals("a<br>b<br>c", HTMLText.brList(["a", "b", "c"]))
+        assertEquals("", HTMLText.brList([]))
+
+        final StringWriter writer = new StringWriter()
+        HTMLText.brList([new StringBuilder("x"), "y"], writer)
+        assertEquals("x<br>y", writer.toString())
+    }
+}
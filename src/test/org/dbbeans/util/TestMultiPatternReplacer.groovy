@@ -0,0 +1,51 @@
+package test.org.dbbeans.util
+
+import org.dbbeans.util.MultiPatternReplacer
+import org.dbbeans.util.Strings
+
+class TestMultiPatternReplacer extends GroovyTestCase {
+
+    void testLeftmostLongest() {
+        final MultiPatternReplacer replacer = new MultiPatternReplacer(["he": "1", "hers": "2", "she": "3", "is": "4"])
+        assertEquals("u3 4 2", replacer.replace("ushe is hers"))
+        assertEquals("4sh", replacer.replace("issh"))
+    }
+
+    void testSinglePass() {
+        assertEquals("ba", Strings.replaceMany("ab", ["a": "b", "b": "a"]))
+        assertEquals("Hello \${user}!",
+                Strings.replaceWithParameters("Hello \${name}!", ["name": "\${user}", "user": "nobody"]))
+    }
+
+    void testPendingMatches() {
+        // "bc" must be found even though "abc", which starts earlier, overlaps the first replacement
+        assertEquals("12", new MultiPatternReplacer(["xa": "1", "abc": "3", "bc": "2"]).replace("xabc"))
+        assertEquals("a1cx2", new MultiPatternReplacer(["abcd": "2", "b": "1"]).replace("abcxabcd"))
+        assertEquals("<aa><a>", new MultiPatternReplacer(["a": "<a>", "aa": "<aa>", "aaaa": "<aaaa>"]).replace("aaa"))
+    }
+
+    void testLongPartialMatches() {
+        // a long target that almost matches everywhere must not cause the text to be read again
+        final MultiPatternReplacer replacer = new MultiPatternReplacer(["a": "x", ("a" * 2000 + "b"): "y"])
+        assertEquals("x" * 200000, replacer.replace("a" * 200000))
+        assertEquals("x" * 10 + "y" + "x" * 5, replacer.replace("a" * 2010 + "b" + "a" * 5))
+    }
+
+    void testCachedReplacers() {
+        final Map<String, String> replacements = ["a": "1"]
+        assertEquals("1b", Strings.replaceMany("ab", replacements))
+        replacements.put("b", "2")
+        assertEquals("12", Strings.replaceMany("ab", replacements))
+    }
+
+    void testParameterReplacer() {
+        final MultiPatternReplacer replacer = Strings.getParameterReplacer(["name": "Ann", "count": 3])
+        assertEquals("Ann has 3 messages", replacer.replace("\${name} has \${count} messages"))
+        assertEquals("\${other}", replacer.replace("\${other}"))
+    }
+
+    void testNoMatch() {
+        final String content = "nothing to see"
+        assertSame(content, new MultiPatternReplacer(["xyz": "abc"]).replace(content))
+    }
+}
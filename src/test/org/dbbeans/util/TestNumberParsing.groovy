@@ -0,0 +1,42 @@
+package test.org.dbbeans.util
+
+import org.dbbeans.util.Strings
+
+class TestNumberParsing extends GroovyTestCase {
+
+    void testIntegers() {
+        assertEquals(42, Strings.getIntVal("42"))
+        assertEquals(-2147483648, Strings.getIntVal("-2147483648"))
+        assertEquals(0, Strings.getIntVal("2147483648"))
+        assertEquals(0, Strings.getIntVal(" 42"))
+        assertEquals(0, Strings.getIntVal("-"))
+        assertEquals(0, Strings.getIntVal(null))
+        assertEquals(Long.MIN_VALUE, Strings.getLongVal("-9223372036854775808"))
+        assertEquals(0L, Strings.getLongVal("9223372036854775808"))
+    }
+
+    void testDecimals() {
+        assertEquals(1.5d, Strings.getDoubleVal(" 1.5 "))
+        assertEquals(0.1d, Strings.getDoubleVal("0.1"))
+        assertEquals(1.0e-5d, Strings.getDoubleVal("1e-5"))
+        assertEquals(9007199254740993d, Strings.getDoubleVal("9007199254740993"))
+        assertEquals(2.5f, Strings.getFloatVal("2.5f"))
+        assertEquals(0.1f, Strings.getFloatVal("0.1"))
+        assertTrue(Double.isNaN(Strings.getDoubleVal("NaN")))
+        assertEquals(Double.NEGATIVE_INFINITY, Strings.getDoubleVal("-Infinity"))
+        assertEquals(0.0d, Strings.getDoubleVal("1.5.2"))
+        assertEquals(0.0d, Strings.getDoubleVal("."))
+        assertEquals(0.0d, Strings.getDoubleVal(null))
+    }
+
+    void testRanges() {
+        final String line = "abc;1234;-5.25;x"
+        assertEquals(1234, Strings.getIntVal(line, 4, 4))
+        assertEquals(1234L, Strings.getLongVal(line, 4, 4))
+        assertEquals(-5.25d, Strings.getDoubleVal(line, 9, 5))
+        assertEquals(0, Strings.getIntVal(line, 0, 3))
+        shouldFail(IndexOutOfBoundsException) {
+            Strings.getIntVal(line, 14, 5)
+        }
+    }
+}
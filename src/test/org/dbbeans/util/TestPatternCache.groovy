@@ -0,0 +1,44 @@
+package test.org.dbbeans.util
+
+import org.dbbeans.util.PatternCache
+
+class TestPatternCache extends GroovyTestCase {
+
+    void testStatistics() {
+        final PatternCache cache = new PatternCache(2)
+        assertSame(cache.get("a+"), cache.get("a+"))
+        assertEquals(1, cache.getHitCount())
+        assertEquals(1, cache.getMissCount())
+    }
+
+    void testEviction() {
+        final PatternCache cache = new PatternCache(2)
+        cache.get("a")
+        cache.get("b")
+        cache.get("a")
+        cache.get("c")  // evicts b
+        cache.get("b")
+
+        assertEquals(2, cache.size())
+        assertEquals(1, cache.getHitCount())
+        assertEquals(4, cache.getMissCount())
+    }
+
+    void testHotSetSurvivesChurn() {
+        final PatternCache cache = new PatternCache(16)
+        final List<String> hotSet = ["a+", "b+", "c+", "d+"]
+        for (int i = 0; i < 1000; i++) {
+            for (String regex: hotSet)
+                cache.get(regex)
+            cache.get("cold" + i)
+            assertTrue(cache.size() <= 16)
+        }
+
+        // the hot expressions are only compiled the first time
+        assertEquals(1004, cache.getMissCount())
+        assertEquals(3996, cache.getHitCount())
+        cache.clear()
+        assertEquals(0, cache.size())
+        assertEquals(0, cache.getHitCount())
+    }
+}
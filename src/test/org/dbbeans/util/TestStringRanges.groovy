@@ -0,0 +1,42 @@
+package test.org.dbbeans.util
+
+import org.dbbeans.util.RangeVisitor
+import org.dbbeans.util.Strings
+
+class TestStringRanges extends GroovyTestCase {
+
+    private static List<String> collect(final Closure scan) {
+        final List<String> ranges = []
+        scan({ CharSequence content, int start, int end ->
+            ranges << content.subSequence(start, end).toString()
+        } as RangeVisitor)
+        return ranges
+    }
+
+    void testOccurrences() {
+        final StringBuilder buf = new StringBuilder("xx aaa aa xx")
+        assertEquals(5, Strings.occurrenceCount(buf, 0, buf.length(), "a"))
+        assertEquals(2, Strings.occurrenceCount(buf, 3, 3, "aa"))
+        assertEquals(["aa", "aa"], collect { visitor -> Strings.visitOccurrences(buf, 3, 3, "aa", visitor) })
+    }
+
+    void testDelimiters() {
+        final String text = "ignored [a] [b] | [c] [d]"
+        assertEquals(["a", "b"], Strings.extractBetweenDelimiters(text, 8, 7, "[", "]"))
+        assertEquals(["c", "d"], collect { visitor -> Strings.visitBetweenDelimiters(text, 16, 9, "[", "]", visitor) })
+        shouldFail(IllegalArgumentException) {
+            Strings.extractBetweenDelimiters("[a [b]", 0, 6, "[", "]")
+        }
+        assertEquals(["b"], collect { visitor -> Strings.lenientVisitBetweenDelimiters("[a [b]", 3, 3, "[", "]", visitor) })
+    }
+
+    void testLines() {
+        final String text = "0123 5678 0123 5678\nabc"
+        assertEquals(["0123 5678", "0123 5678", "abc"], Strings.splitIntoLines(text, 0, text.length(), 10))
+        assertEquals(["0123 5678", "0123 5678"], collect { visitor -> Strings.visitLines(text, 0, 19, 10, visitor) })
+    }
+
+    void testLetters() {
+        assertEquals(["b", "c"], Strings.toLetterList(new StringBuilder("abcd"), 1, 2))
+    }
+}
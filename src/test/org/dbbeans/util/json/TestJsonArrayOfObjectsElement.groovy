@@ -0,0 +1,95 @@
+package test.org.dbbeans.util.json
+
+import org.dbbeans.util.json.JsonArrayOfObjectsElement
+import org.dbbeans.util.json.JsonElement
+import org.dbbeans.util.json.JsonFormat
+import org.dbbeans.util.json.JsonIntegerElement
+import org.dbbeans.util.json.JsonObject
+import org.dbbeans.util.json.JsonStringElement
+
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+class TestJsonArrayOfObjectsElement extends GroovyTestCase {
+
+    private static final int CHUNK_SIZE = 4
+
+    private ExecutorService executor
+
+    @Override
+    protected void setUp() {
+        executor = Executors.newFixedThreadPool(4)
+    }
+
+    @Override
+    protected void tearDown() {
+        executor.shutdownNow()
+    }
+
+    private static List<JsonObject> createObjects(final int count) {
+        final List<JsonObject> objects = []
+        for (int i = 0; i < count; i++) {
+            final JsonObject jsonObject = new JsonObject()
+            jsonObject.addElement(new JsonIntegerElement("id", i))
+            jsonObject.addElement(new JsonStringElement("label", "object " + i))
+            objects.add(jsonObject)
+        }
+        return objects
+    }
+
+    private void checkSameOutput(final int count) {
+        final List<JsonObject> objects = createObjects(count)
+
+        final JsonObject sequential = new JsonObject()
+        sequential.addElement(JsonArrayOfObjectsElement.wrap("objects", objects))
+        final JsonObject parallel = new JsonObject()
+        parallel.addElement(JsonArrayOfObjectsElement.wrapParallel("objects", objects, executor, CHUNK_SIZE))
+
+        assertEquals(sequential.print(0, true), parallel.print(0, true))
+        assertEquals(sequential.printCompact(), parallel.printCompact())
+        assertEquals(sequential.print(JsonFormat.prettyWithSpaces(2), 1, false),
+                parallel.print(JsonFormat.prettyWithSpaces(2), 1, false))
+    }
+
+    void testBelowChunkSize() {
+        checkSameOutput(0)
+        checkSameOutput(1)
+        checkSameOutput(CHUNK_SIZE - 1)
+    }
+
+    void testChunkSize() {
+        checkSameOutput(CHUNK_SIZE)
+    }
+
+    void testAboveChunkSize() {
+        checkSameOutput(CHUNK_SIZE + 1)
+        checkSameOutput(CHUNK_SIZE * 3)
+        checkSameOutput(CHUNK_SIZE * 3 + 2)
+    }
+
+    void testManyChunks() {
+        // more chunks than can be pending at once, so that new tasks are submitted as the first ones complete
+        checkSameOutput(CHUNK_SIZE * 200 + 1)
+    }
+
+    void testFailingTask() {
+        final List<JsonObject> objects = createObjects(CHUNK_SIZE * 3)
+        objects[CHUNK_SIZE * 2 + 1].addElement(new JsonElement("failing") {
+            @Override
+            void writeTo(final Appendable out, final JsonFormat format, final int indentLevel, final boolean isLast) {
+                throw new IllegalStateException("cannot be written")
+            }
+        })
+
+        final JsonObject jsonObject = new JsonObject()
+        jsonObject.addElement(JsonArrayOfObjectsElement.wrapParallel("objects", objects, executor, CHUNK_SIZE))
+        final String message = shouldFail(IllegalStateException) { jsonObject.printCompact() }
+        assertEquals("cannot be written", message)
+    }
+
+    void testInvalidChunkSize() {
+        shouldFail(IllegalArgumentException) {
+            JsonArrayOfObjectsElement.wrapParallel("objects", createObjects(1), executor, 0)
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package test.org.dbbeans.util.json
+
+import org.dbbeans.util.json.JsonCborOutput
+import org.dbbeans.util.json.JsonCborReader
+import org.dbbeans.util.json.JsonElement
+import org.dbbeans.util.json.JsonIntegerElement
+import org.dbbeans.util.json.JsonObject
+import org.dbbeans.util.json.JsonParser
+import org.dbbeans.util.json.JsonReflectionBeanMapper
+
+class TestJsonCbor extends GroovyTestCase {
+
+    static class Person {
+        String name
+        int age
+    }
+
+    private static byte[] encode(final JsonObject... jsonObjects) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+        final JsonCborOutput out = new JsonCborOutput(bytes)
+        for (JsonObject jsonObject: jsonObjects)
+            out.write(jsonObject)
+        out.flush()
+        return bytes.toByteArray()
+    }
+
+    void testRoundTrip() {
+        final String json = "{\"name\":\"tést\",\"count\":-12,\"big\":9223372036854775807,\"ok\":true," +
+                "\"nothing\":null,\"inner\":{\"id\":1},\"values\":[1,2,3],\"flags\":[true,false]," +
+                "\"labels\":[\"a\",\"b\"],\"objects\":[{\"id\":1},{\"id\":2}],\"at\":\"@1234@\"," +
+                "\"ats\":[\"@1000@\",\"@-2@\"]}"
+        final JsonObject jsonObject = JsonParser.parse(json)
+
+        final JsonCborReader reader = new JsonCborReader(new ByteArrayInputStream(encode(jsonObject, jsonObject)))
+        assertEquals(json, reader.readObject().printCompact())
+        assertEquals(json, reader.readObject().printCompact())
+        assertFalse(reader.hasNext())
+    }
+
+    void testBeanElements() {
+        final JsonObject jsonObject = new JsonObject()
+        jsonObject.addElement(JsonReflectionBeanMapper.createObjectElement("person", new Person(name: "Ann", age: 42)))
+        jsonObject.addElement(JsonReflectionBeanMapper.createArrayElement("people",
+                [new Person(name: "Bob", age: 7), new Person(age: 1)]))
+
+        final JsonCborReader reader = new JsonCborReader(new ByteArrayInputStream(encode(jsonObject)))
+        assertEquals("{\"person\":{\"age\":42,\"name\":\"Ann\"}," +
+                "\"people\":[{\"age\":7,\"name\":\"Bob\"},{\"age\":1,\"name\":null}]}",
+                reader.readObject().printCompact())
+    }
+
+    void testPrintOnlySubclass() {
+        final JsonObject jsonObject = new JsonObject()
+        jsonObject.addElement(new JsonElement("legacy") {
+            @Override
+            String print(final int indentLevel, final boolean isLast) {
+                return getTabs(indentLevel) + "\"legacy\" : [ 1, 2 ]" + (isLast ? "" : ",") + "\n"
+            }
+        })
+
+        final JsonCborReader reader = new JsonCborReader(new ByteArrayInputStream(encode(jsonObject)))
+        assertEquals("{\"legacy\":[1,2]}", reader.readObject().printCompact())
+
+        final JsonObject unparsable = new JsonObject()
+        unparsable.addElement(new JsonElement("decimal") {
+            @Override
+            String print(final int indentLevel, final boolean isLast) {
+                return getTabs(indentLevel) + "\"decimal\" : 1.5\n"
+            }
+        })
+        shouldFail(IllegalArgumentException) { encode(unparsable) }
+    }
+
+    void testIntegerEncoding() {
+        final JsonObject jsonObject = new JsonObject()
+        jsonObject.addElement(new JsonIntegerElement("a", 500))
+
+        assertEquals([0xA1, 0x61, 0x61, 0x19, 0x01, 0xF4].collect { it as byte }, encode(jsonObject).toList())
+    }
+
+    void testMalformedInput() {
+        shouldFail(IllegalArgumentException) {
+            new JsonCborReader(new ByteArrayInputStream([0x81, 0x01] as byte[])).readObject()
+        }
+        shouldFail(IllegalArgumentException) {
+            new JsonCborReader(new ByteArrayInputStream([0xA1, 0x61, 0x61, 0x82, 0x01, 0xF5] as byte[])).readObject()
+        }
+        shouldFail(IllegalArgumentException) {
+            new JsonCborReader(new ByteArrayInputStream([0xA1, 0x61, 0x61] as byte[])).readObject()
+        }
+    }
+
+    void testForgedLength() {
+        // a text string announcing almost 2 GB of content must not be allocated before its bytes are read
+        shouldFail(IllegalArgumentException) {
+            new JsonCborReader(new ByteArrayInputStream([0xA1, 0x7A, 0x7F, 0xFF, 0xFF, 0xF0] as byte[])).readObject()
+        }
+        shouldFail(IllegalArgumentException) {
+            new JsonCborReader(new ByteArrayInputStream([0xA1, 0x7F, 0x7A, 0x7F, 0xFF, 0xFF, 0xF0, 0x61] as byte[]))
+                    .readObject()
+        }
+    }
+
+    void testLongText() {
+        final String json = "{\"text\":\"" + ("é" * 10000) + "\",\"ascii\":\"" + ("abc" * 3000) + "\"}"
+
+        final JsonCborReader reader = new JsonCborReader(new ByteArrayInputStream(encode(JsonParser.parse(json))))
+        assertEquals(json, reader.readObject().printCompact())
+    }
+}
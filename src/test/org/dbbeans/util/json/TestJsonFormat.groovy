@@ -0,0 +1,140 @@
+package test.org.dbbeans.util.json
+
+import org.dbbeans.util.json.JsonArrayOfAtMillisecondsElement
+import org.dbbeans.util.json.JsonArrayOfBooleansElement
+import org.dbbeans.util.json.JsonArrayOfIntegersElement
+import org.dbbeans.util.json.JsonArrayOfObjectsElement
+import org.dbbeans.util.json.JsonArrayOfStringsElement
+import org.dbbeans.util.json.JsonCborOutput
+import org.dbbeans.util.json.JsonCborReader
+import org.dbbeans.util.json.JsonElement
+import org.dbbeans.util.json.JsonFormat
+import org.dbbeans.util.json.JsonIntegerElement
+import org.dbbeans.util.json.JsonObject
+import org.dbbeans.util.json.JsonObjectElement
+import org.dbbeans.util.json.JsonStringElement
+
+class TestJsonFormat extends GroovyTestCase {
+
+    private static JsonObject createDocument() {
+        final JsonObject inner = new JsonObject()
+        inner.addElement(new JsonIntegerElement("id", 1))
+
+        final JsonObject document = new JsonObject()
+        document.addElement(new JsonStringElement("name", "test"))
+        document.addElement(new JsonObjectElement("inner", inner))
+        document.addElement(new JsonArrayOfIntegersElement("values", [1L, 2L, 3L]))
+        document.addElement(new JsonArrayOfObjectsElement("objects", [inner, inner]))
+
+        return document
+    }
+
+    void testPretty() {
+        final String expected =
+                "{\n" +
+                "\t\"name\" : \"test\",\n" +
+                "\t\"inner\" : {\n" +
+                "\t\t\"id\" : 1\n" +
+                "\t},\n" +
+                "\t\"values\" : [ 1, 2, 3 ],\n" +
+                "\t\"objects\" : [\n" +
+                "\t\t{\n" +
+                "\t\t\t\"id\" : 1\n" +
+                "\t\t},\n" +
+                "\t\t{\n" +
+                "\t\t\t\"id\" : 1\n" +
+                "\t\t}\n" +
+                "\t]\n" +
+                "}"
+
+        assertEquals(expected, createDocument().toString())
+        assertEquals(expected, createDocument().print(JsonFormat.PRETTY, 0, true))
+    }
+
+    void testCompact() {
+        assertEquals("{\"name\":\"test\",\"inner\":{\"id\":1},\"values\":[1,2,3],\"objects\":[{\"id\":1},{\"id\":1}]}",
+                createDocument().printCompact())
+        assertEquals("{}", new JsonObject().printCompact())
+    }
+
+    void testWriteTo() {
+        final StringWriter writer = new StringWriter()
+        createDocument().writeTo(writer, JsonFormat.COMPACT)
+        assertEquals(createDocument().printCompact(), writer.toString())
+    }
+
+    void testEscaping() {
+        final JsonObject document = new JsonObject()
+        document.addElement(new JsonStringElement("quote\"", "a\"b\\c\nd\te\u0001f/g"))
+
+        assertEquals("{\"quote\\\"\":\"a\\\"b\\\\c\\nd\\te\\u0001f/g\"}", document.printCompact())
+    }
+
+    void testNullString() {
+        final JsonObject document = new JsonObject()
+        document.addElement(new JsonStringElement("s", null))
+
+        assertEquals("{\n\t\"s\" : \"null\"\n}", document.print(0, true))
+        assertEquals("{\"s\":\"null\"}", document.printCompact())
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+        final JsonCborOutput out = new JsonCborOutput(bytes)
+        out.write(document)
+        out.flush()
+        assertEquals(document.printCompact(),
+                new JsonCborReader(new ByteArrayInputStream(bytes.toByteArray())).readObject().printCompact())
+    }
+
+    void testPrimitiveArrays() {
+        final long[] values = [1L, -2L, 3L] as long[]
+        final JsonObject document = new JsonObject()
+        document.addElement(JsonArrayOfIntegersElement.wrap("longs", values))
+        document.addElement(new JsonArrayOfIntegersElement("ints", [4, 5] as int[]))
+        document.addElement(new JsonArrayOfBooleansElement("flags", [true, false] as boolean[]))
+        document.addElement(new JsonArrayOfAtMillisecondsElement("ats", [1000L] as long[]))
+
+        assertEquals("{\"longs\":[1,-2,3],\"ints\":[4,5],\"flags\":[true,false],\"ats\":[\"@1000@\"]}",
+                document.printCompact())
+    }
+
+    void testNullStringsInArray() {
+        final JsonObject document = new JsonObject()
+        document.addElement(new JsonArrayOfStringsElement("labels", ["a", null]))
+
+        assertEquals("{\n\t\"labels\" : [ \"a\", \"null\" ]\n}", document.print(0, true))
+        assertEquals("{\"labels\":[\"a\",\"null\"]}", document.printCompact())
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+        final JsonCborOutput out = new JsonCborOutput(bytes)
+        out.write(document)
+        out.flush()
+        assertEquals(document.printCompact(),
+                new JsonCborReader(new ByteArrayInputStream(bytes.toByteArray())).readObject().printCompact())
+    }
+
+    void testSpacesIndentation() {
+        final JsonObject inner = new JsonObject()
+        inner.addElement(new JsonIntegerElement("id", 1))
+        final JsonObject document = new JsonObject()
+        document.addElement(new JsonObjectElement("inner", inner))
+
+        assertEquals("{\n  \"inner\" : {\n    \"id\" : 1\n  }\n}",
+                document.print(JsonFormat.prettyWithSpaces(2), 0, true))
+        assertSame(JsonFormat.prettyWithSpaces(4), JsonFormat.prettyWithSpaces(4))
+        shouldFail(IllegalArgumentException) { JsonFormat.prettyWithSpaces(0) }
+    }
+
+    void testPrintOnlySubclass() {
+        final JsonElement legacy = new JsonElement("legacy") {
+            @Override
+            String print(final int indentLevel, final boolean isLast) {
+                return getTabs(indentLevel) + "\"legacy\" : 42" + (isLast ? "" : ",") + "\n"
+            }
+        }
+        final JsonObject document = new JsonObject()
+        document.addElement(legacy)
+        document.addElement(new JsonIntegerElement("id", 1))
+
+        assertEquals("{\n\t\"legacy\" : 42,\n\t\"id\" : 1\n}", document.print(0, true))
+    }
+}
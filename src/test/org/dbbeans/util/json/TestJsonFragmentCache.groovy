@@ -0,0 +1,169 @@
+package test.org.dbbeans.util.json
+
+import org.dbbeans.util.json.JsonElement
+import org.dbbeans.util.json.JsonFormat
+import org.dbbeans.util.json.JsonFragmentCache
+import org.dbbeans.util.json.JsonIntegerElement
+import org.dbbeans.util.json.JsonLazyElement
+import org.dbbeans.util.json.JsonObject
+import org.dbbeans.util.json.JsonStringElement
+
+import java.nio.ByteBuffer
+import java.util.concurrent.atomic.AtomicInteger
+
+class TestJsonFragmentCache extends GroovyTestCase {
+
+    // the counter shows how many times the fragment was actually printed
+    private static JsonObject fragment(final int id, final AtomicInteger prints) {
+        final JsonObject jsonObject = new JsonObject()
+        jsonObject.addElement(new JsonLazyElement("id") {
+            @Override
+            protected JsonElement createElement(final String name) {
+                prints.incrementAndGet()
+                return new JsonIntegerElement(name, id)
+            }
+        })
+        return jsonObject
+    }
+
+    void testFreezing() {
+        final JsonFragmentCache cache = new JsonFragmentCache(10)
+        final JsonObject original = new JsonObject()
+        original.addElement(new JsonIntegerElement("id", 1))
+        final JsonObject frozen = cache.freeze(original)
+
+        assertEquals(original.print(0, true), frozen.print(0, true))
+        assertEquals(original.printCompact(), frozen.printCompact())
+
+        // the frozen object keeps the elements the original had when it was frozen
+        original.addElement(new JsonIntegerElement("count", 2))
+        cache.clear()
+        assertEquals("{\"id\":1}", frozen.printCompact())
+
+        final JsonObject document = new JsonObject()
+        document.addElement(cache.freeze(new JsonStringElement("name", "value")))
+        assertEquals("{\"name\":\"value\"}", document.printCompact())
+    }
+
+    void testHits() {
+        final JsonFragmentCache cache = new JsonFragmentCache(10)
+        final AtomicInteger prints = new AtomicInteger()
+        final JsonObject frozen = cache.freeze(fragment(1, prints))
+
+        assertEquals("{\"id\":1}", frozen.printCompact())
+        assertEquals("{\"id\":1}", frozen.printCompact())
+        assertEquals(1, prints.get())
+        assertEquals(1, cache.size())
+
+        // each format and indentation level has its own string
+        frozen.print(JsonFormat.PRETTY, 1, true)
+        assertEquals(2, prints.get())
+        assertEquals(2, cache.size())
+    }
+
+    void testUtf8() {
+        final JsonFragmentCache cache = new JsonFragmentCache(10)
+        final JsonObject original = new JsonObject()
+        original.addElement(new JsonStringElement("text", "é € 😀"))
+        final JsonObject frozen = cache.freeze(original)
+        final List<Byte> expected = original.print(0, true).getBytes("UTF-8").toList()
+
+        for (int i = 0; i < 2; i++) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+            frozen.writeUtf8To(bytes, JsonFormat.PRETTY)
+            assertEquals(expected, bytes.toByteArray().toList())
+
+            final ByteBuffer buffer = ByteBuffer.allocate(64)
+            frozen.writeUtf8To(buffer, JsonFormat.PRETTY)
+            buffer.flip()
+            final byte[] written = new byte[buffer.remaining()]
+            buffer.get(written)
+            assertEquals(expected, written.toList())
+        }
+        assertEquals(1, cache.size())
+    }
+
+    void testLruEviction() {
+        final JsonFragmentCache cache = new JsonFragmentCache(2)
+        final AtomicInteger firstPrints = new AtomicInteger()
+        final AtomicInteger secondPrints = new AtomicInteger()
+        final JsonObject first = cache.freeze(fragment(1, firstPrints))
+        final JsonObject second = cache.freeze(fragment(2, secondPrints))
+        final JsonObject third = cache.freeze(fragment(3, new AtomicInteger()))
+
+        first.printCompact()
+        second.printCompact()
+        first.printCompact()
+        third.printCompact()  // evicts second
+        assertEquals(2, cache.size())
+
+        first.printCompact()
+        second.printCompact()
+        assertEquals(1, firstPrints.get())
+        assertEquals(2, secondPrints.get())
+    }
+
+    void testInvalidation() {
+        final JsonFragmentCache cache = new JsonFragmentCache(10)
+        final AtomicInteger prints = new AtomicInteger()
+        final JsonObject frozen = cache.freeze(fragment(1, prints))
+        final JsonObject other = cache.freeze(fragment(2, new AtomicInteger()))
+        final JsonElement frozenElement = cache.freeze(new JsonStringElement("name", "value"))
+
+        frozen.printCompact()
+        frozen.print(0, true)
+        other.printCompact()
+        final JsonObject document = new JsonObject()
+        document.addElement(frozenElement)
+        document.printCompact()
+        assertEquals(4, cache.size())
+
+        cache.invalidate(frozen)
+        assertEquals(2, cache.size())
+        frozen.printCompact()
+        assertEquals(3, prints.get())
+
+        cache.invalidate(frozenElement)
+        assertEquals(2, cache.size())
+        cache.invalidate(frozenElement)
+        assertEquals(2, cache.size())
+
+        cache.clear()
+        assertEquals(0, cache.size())
+    }
+
+    void testInvalidationWhilePrinting() {
+        final JsonFragmentCache cache = new JsonFragmentCache(10)
+        final AtomicInteger prints = new AtomicInteger()
+        final List<JsonObject> frozen = []
+        final JsonObject original = new JsonObject()
+        original.addElement(new JsonLazyElement("id") {
+            @Override
+            protected JsonElement createElement(final String name) {
+                // the reference data changes while the fragment is being printed
+                if (prints.incrementAndGet() == 1)
+                    cache.invalidate(frozen[0])
+                return new JsonIntegerElement(name, prints.get())
+            }
+        })
+        frozen.add(cache.freeze(original))
+
+        assertEquals("{\"id\":1}", frozen[0].printCompact())
+        assertEquals(0, cache.size())
+        assertEquals("{\"id\":2}", frozen[0].printCompact())
+        assertEquals("{\"id\":2}", frozen[0].printCompact())
+        assertEquals(1, cache.size())
+    }
+
+    void testFrozenObjectsCannotBeModified() {
+        final JsonObject frozen = new JsonFragmentCache(10).freeze(fragment(1, new AtomicInteger()))
+
+        shouldFail(UnsupportedOperationException) { frozen.addElement(new JsonIntegerElement("count", 2)) }
+        shouldFail(UnsupportedOperationException) { frozen.reset() }
+        assertEquals("{\"id\":1}", frozen.printCompact())
+    }
+
+    void testInvalidMaxEntries() {
+        shouldFail(IllegalArgumentException) { new JsonFragmentCache(0) }
+    }
+}
@@ -0,0 +1,77 @@
+package test.org.dbbeans.util.json
+
+import org.dbbeans.util.json.JsonDateElement
+import org.dbbeans.util.json.JsonDateTimeElement
+import org.dbbeans.util.json.JsonElement
+import org.dbbeans.util.json.JsonIntegerElement
+import org.dbbeans.util.json.JsonLazyElement
+import org.dbbeans.util.json.JsonObject
+import org.dbbeans.util.json.JsonTimeElement
+
+import java.sql.Date
+import java.sql.Time
+import java.sql.Timestamp
+import java.util.concurrent.atomic.AtomicInteger
+
+class TestJsonLazyElement extends GroovyTestCase {
+
+    void testLazyElement() {
+        final AtomicInteger calls = new AtomicInteger()
+        final JsonElement lazy = new JsonLazyElement("count") {
+            @Override
+            protected JsonElement createElement(final String name) {
+                return new JsonIntegerElement(name, calls.incrementAndGet())
+            }
+        }
+        final JsonObject jsonObject = new JsonObject()
+        jsonObject.addElement(lazy)
+        assertEquals(0, calls.get())
+
+        assertEquals("{\"count\":1}", jsonObject.printCompact())
+        assertEquals("{\n\t\"count\" : 2\n}", jsonObject.print(0, true))
+        assertEquals(2, calls.get())
+    }
+
+    void testDateElementsFormatLazily() {
+        final AtomicInteger calls = new AtomicInteger()
+        final Date date = new Date(0) {
+            @Override
+            String toString() {
+                calls.incrementAndGet()
+                return "2024-01-02"
+            }
+        }
+        final Time time = new Time(0) {
+            @Override
+            String toString() {
+                calls.incrementAndGet()
+                return "12:34:56"
+            }
+        }
+        final Timestamp timestamp = new Timestamp(0) {
+            @Override
+            String toString() {
+                calls.incrementAndGet()
+                return "2024-01-02 12:34:56.0"
+            }
+        }
+
+        final JsonObject jsonObject = new JsonObject()
+        jsonObject.addElement(new JsonDateElement("date", date))
+        jsonObject.addElement(new JsonTimeElement("time", time))
+        jsonObject.addElement(new JsonDateTimeElement("timestamp", timestamp))
+        assertEquals(0, calls.get())
+
+        final String expected = "{\"date\":\"2024-01-02\",\"time\":\"12:34:56\",\"timestamp\":\"2024-01-02 12:34:56.0\"}"
+        assertEquals(expected, jsonObject.printCompact())
+        assertEquals(3, calls.get())
+        assertEquals(expected, jsonObject.printCompact())
+        assertEquals(6, calls.get())
+    }
+
+    void testNullDates() {
+        shouldFail(NullPointerException) { new JsonDateElement("date", null) }
+        shouldFail(NullPointerException) { new JsonTimeElement("time", null) }
+        shouldFail(NullPointerException) { new JsonDateTimeElement("timestamp", null) }
+    }
+}
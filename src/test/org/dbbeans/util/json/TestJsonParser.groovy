@@ -0,0 +1,61 @@
+package test.org.dbbeans.util.json
+
+import org.dbbeans.util.json.JsonObject
+import org.dbbeans.util.json.JsonParser
+import org.dbbeans.util.json.JsonReader
+import org.dbbeans.util.json.JsonToken
+
+class TestJsonParser extends GroovyTestCase {
+
+    void testRoundTrip() {
+        final String json = "{\"name\":\"test\",\"count\":-12,\"ok\":true,\"nothing\":null," +
+                "\"inner\":{\"id\":1},\"values\":[1,2,3],\"flags\":[true,false],\"labels\":[\"a\",\"b\"]," +
+                "\"objects\":[{\"id\":1},{\"id\":2}],\"at\":\"@1234@\",\"ats\":[\"@1@\",\"@2@\"]}"
+
+        assertEquals(json, JsonParser.parse(json).printCompact())
+    }
+
+    void testMalformedDocuments() {
+        shouldFail(IllegalArgumentException) { JsonParser.parse("{\"a\":1,}") }
+        shouldFail(IllegalArgumentException) { JsonParser.parse("{\"a\":01}") }
+        shouldFail(IllegalArgumentException) { JsonParser.parse("{\"a\":[1,true]}") }
+        shouldFail(IllegalArgumentException) { JsonParser.parse("{\"a\":1.5}") }
+        shouldFail(IllegalArgumentException) { JsonParser.parse("{} {}") }
+    }
+
+    void testOutOfRangeMilliseconds() {
+        final String json = "{\"big\":\"@9999999999999999999@\",\"min\":\"@-9223372036854775808@\"," +
+                "\"under\":\"@-9223372036854775809@\",\"long\":\"@123456789012345678901@\"," +
+                "\"ats\":[\"@1@\",\"@99999999999999999999@\"]}"
+
+        assertEquals(json, JsonParser.parse(json).printCompact())
+    }
+
+    void testLargeArrayProcessing() {
+        final JsonReader reader = new JsonReader(new StringReader("[{\"id\":1},{\"id\":2},{\"id\":3}]"))
+        final List<JsonObject> objects = []
+
+        assertEquals(JsonToken.START_ARRAY, reader.next())
+        while (reader.peek() != JsonToken.END_ARRAY)
+            objects.add(reader.readObject())
+        assertEquals(JsonToken.END_ARRAY, reader.next())
+        assertEquals(JsonToken.END_DOCUMENT, reader.next())
+
+        assertEquals(3, objects.size())
+        assertEquals("{\"id\":3}", objects[2].printCompact())
+    }
+
+    void testSkipValue() {
+        final JsonReader reader = new JsonReader(new StringReader("{\"a\":[1,{\"b\":2}],\"c\":3}"))
+
+        assertEquals(JsonToken.START_OBJECT, reader.next())
+        reader.skipValue()
+        assertEquals(JsonToken.NAME, reader.next())
+        assertEquals("c", reader.getName())
+        reader.skipValue()
+        shouldFail(IllegalArgumentException) { reader.skipValue() }
+        assertEquals(JsonToken.END_OBJECT, reader.next())
+        shouldFail(IllegalArgumentException) { reader.skipValue() }
+        assertEquals(JsonToken.END_DOCUMENT, reader.next())
+    }
+}
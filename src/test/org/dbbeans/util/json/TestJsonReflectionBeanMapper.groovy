@@ -0,0 +1,101 @@
+package test.org.dbbeans.util.json
+
+import org.dbbeans.util.json.JsonFormat
+import org.dbbeans.util.json.JsonIntegerElement
+import org.dbbeans.util.json.JsonObject
+import org.dbbeans.util.json.JsonReflectionBeanMapper
+
+import java.sql.Date
+import java.sql.Time
+import java.sql.Timestamp
+
+class TestJsonReflectionBeanMapper extends GroovyTestCase {
+
+    static enum Color { RED, GREEN }
+
+    static class Person {
+        String name
+        int age
+        boolean active
+        List<String> tags = ["ignored"]
+        private String secret = "hidden"
+
+        void setSecret(final String secret) {
+            this.secret = secret
+        }
+    }
+
+    static class AllTypes {
+        String string = "s\"t"
+        char character = 'c'
+        Character boxedCharacter = 'd'
+        Color color = Color.GREEN
+        long longValue = Long.MIN_VALUE
+        int intValue = -1
+        short shortValue = 2
+        byte byteValue = 3
+        Long boxedLong = 4L
+        Integer boxedInt = 5
+        Short boxedShort = 6
+        Byte boxedByte = 7
+        Boolean boxedBoolean = Boolean.FALSE
+        Date date = Date.valueOf("2024-01-02")
+        Time time = Time.valueOf("12:34:56")
+        Timestamp timestamp = Timestamp.valueOf("2024-01-02 12:34:56.0")
+    }
+
+    static class Nullable {
+        String name
+        Integer count
+        Boolean flag
+        JsonObject details
+    }
+
+    static class Holder {
+        int id
+        JsonObject details
+    }
+
+    void testPropertyDiscovery() {
+        final Person person = new Person(name: "Ann", age: 42, active: true)
+
+        assertEquals("{\"active\":true,\"age\":42,\"name\":\"Ann\"}",
+                JsonReflectionBeanMapper.print(person, JsonFormat.COMPACT))
+        assertEquals("{\n\t\"active\" : true,\n\t\"age\" : 42,\n\t\"name\" : \"Ann\"\n}",
+                JsonReflectionBeanMapper.print(person, JsonFormat.PRETTY))
+        // the properties of the class are cached, the values are read again each time
+        person.age = 43
+        assertEquals("{\"active\":true,\"age\":43,\"name\":\"Ann\"}",
+                JsonReflectionBeanMapper.print(person, JsonFormat.COMPACT))
+    }
+
+    void testSupportedTypes() {
+        assertEquals("{\"boxedBoolean\":false,\"boxedByte\":7,\"boxedCharacter\":\"d\",\"boxedInt\":5," +
+                "\"boxedLong\":4,\"boxedShort\":6,\"byteValue\":3,\"character\":\"c\",\"color\":\"GREEN\"," +
+                "\"date\":\"2024-01-02\",\"intValue\":-1,\"longValue\":-9223372036854775808,\"shortValue\":2," +
+                "\"string\":\"s\\\"t\",\"time\":\"12:34:56\",\"timestamp\":\"2024-01-02 12:34:56.0\"}",
+                JsonReflectionBeanMapper.print(new AllTypes(), JsonFormat.COMPACT))
+    }
+
+    void testNullProperties() {
+        assertEquals("{\"count\":null,\"details\":null,\"flag\":null,\"name\":null}",
+                JsonReflectionBeanMapper.print(new Nullable(), JsonFormat.COMPACT))
+    }
+
+    void testNestedBeans() {
+        final JsonObject details = new JsonObject()
+        details.addElement(new JsonIntegerElement("size", 10))
+        final Holder holder = new Holder(id: 1, details: details)
+
+        final JsonObject document = new JsonObject()
+        document.addElement(JsonReflectionBeanMapper.createObjectElement("holder", holder))
+        document.addElement(JsonReflectionBeanMapper.createArrayElement("people",
+                [new Person(name: "Ann", age: 42), new Person(name: "Bob", age: 7, active: true)]))
+        document.addElement(JsonReflectionBeanMapper.createArrayElement("none", []))
+
+        assertEquals("{\"holder\":{\"details\":{\"size\":10},\"id\":1}," +
+                "\"people\":[{\"active\":false,\"age\":42,\"name\":\"Ann\"},{\"active\":true,\"age\":7,\"name\":\"Bob\"}]," +
+                "\"none\":[]}",
+                document.printCompact())
+    }
+}
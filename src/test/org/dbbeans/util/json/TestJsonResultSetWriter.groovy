@@ -0,0 +1,132 @@
+package test.org.dbbeans.util.json
+
+import org.dbbeans.util.json.JsonCborOutput
+import org.dbbeans.util.json.JsonCborReader
+import org.dbbeans.util.json.JsonFormat
+import org.dbbeans.util.json.JsonObject
+import org.dbbeans.util.json.JsonParser
+import org.dbbeans.util.json.JsonResultSetWriter
+
+import java.sql.Date
+import java.sql.ResultSet
+import java.sql.ResultSetMetaData
+import java.sql.Time
+import java.sql.Timestamp
+import java.sql.Types
+
+class TestJsonResultSetWriter extends GroovyTestCase {
+
+    private static final List<String> LABELS =
+            ["name", "id", "amount", "total", "price", "active", "day", "time", "at", "data"]
+    private static final List<Integer> TYPES = [Types.VARCHAR, Types.INTEGER, Types.NUMERIC, Types.NUMERIC,
+            Types.DECIMAL, Types.BOOLEAN, Types.DATE, Types.TIME, Types.TIMESTAMP, Types.BLOB]
+    private static final List<Integer> PRECISIONS = [20, 10, 18, 25, 10, 1, 10, 8, 23, 0]
+    private static final List<Integer> SCALES = [0, 0, 0, 0, 2, 0, 0, 0, 0, 0]
+
+    private static final List<List<Object>> ROWS = [
+            ["Ann", 1L, new BigDecimal("25"), new BigDecimal("7"), new BigDecimal("1.50"), true,
+                    Date.valueOf("2024-01-02"), Time.valueOf("12:34:56"), Timestamp.valueOf("2024-01-02 12:34:56.0"),
+                    "ignored"],
+            [null, null, null, null, null, null, null, null, null, null],
+            ["Bob", 2L, new BigDecimal("100"), new BigDecimal("1234567890123456789012345"), new BigDecimal("0"), false,
+                    Date.valueOf("2024-01-03"), Time.valueOf("00:00:00"), Timestamp.valueOf("2024-01-03 00:00:00.5"),
+                    null],
+            ["Cy", 3L, new BigDecimal("-999999999999999999"), new BigDecimal("0"), new BigDecimal("-0.01"), true,
+                    null, null, null, null]
+    ]
+
+    // NUMERIC(25,0) values are always written as strings, even when they would fit in a long
+    private static final List<String> EXPECTED_ROWS = [
+            "{\"name\":\"Ann\",\"id\":1,\"amount\":25,\"total\":\"7\",\"price\":\"1.50\",\"active\":true," +
+                    "\"day\":\"2024-01-02\",\"time\":\"12:34:56\",\"at\":\"2024-01-02 12:34:56.0\"}",
+            "{\"name\":null,\"id\":null,\"amount\":null,\"total\":null,\"price\":null,\"active\":null," +
+                    "\"day\":null,\"time\":null,\"at\":null}",
+            "{\"name\":\"Bob\",\"id\":2,\"amount\":100,\"total\":\"1234567890123456789012345\",\"price\":\"0\"," +
+                    "\"active\":false,\"day\":\"2024-01-03\",\"time\":\"00:00:00\"," +
+                    "\"at\":\"2024-01-03 00:00:00.5\"}",
+            "{\"name\":\"Cy\",\"id\":3,\"amount\":-999999999999999999,\"total\":\"0\",\"price\":\"-0.01\"," +
+                    "\"active\":true,\"day\":null,\"time\":null,\"at\":null}"
+    ]
+
+    // minimal ResultSet over a list of rows, only supporting the functions used by JsonResultSetWriter
+    private static ResultSet createResultSet(final List<List<Object>> rows) {
+        final ResultSetMetaData metaData = [
+                getColumnCount: { -> LABELS.size() },
+                getColumnType: { int index -> TYPES[index - 1] },
+                getPrecision: { int index -> PRECISIONS[index - 1] },
+                getScale: { int index -> SCALES[index - 1] },
+                getColumnLabel: { int index -> LABELS[index - 1] }
+        ] as ResultSetMetaData
+
+        int row = -1
+        Object last = null
+        final Closure value = { int index ->
+            last = rows[row][index - 1]
+            return last
+        }
+
+        return [
+                getMetaData: { -> metaData },
+                next: { -> ++row < rows.size() },
+                wasNull: { -> last == null },
+                getString: value,
+                getLong: { int index -> value(index) == null ? 0L : value(index) as long },
+                getBigDecimal: value,
+                getBoolean: { int index -> value(index) == null ? false : value(index) },
+                getDate: value,
+                getTime: value,
+                getTimestamp: value
+        ] as ResultSet
+    }
+
+    void testArray() {
+        final StringBuilder buf = new StringBuilder()
+        assertEquals(4L, new JsonResultSetWriter(createResultSet(ROWS)).writeArray(buf, JsonFormat.COMPACT, 0))
+        assertEquals("[" + EXPECTED_ROWS.join(",") + "]", buf.toString())
+
+        final StringBuilder empty = new StringBuilder()
+        assertEquals(0L, new JsonResultSetWriter(createResultSet([])).writeArray(empty, JsonFormat.COMPACT, 0))
+        assertEquals("[]", empty.toString())
+    }
+
+    void testNdJson() {
+        final StringBuilder buf = new StringBuilder()
+        assertEquals(4L, new JsonResultSetWriter(createResultSet(ROWS)).writeNdJson(buf))
+        assertEquals(EXPECTED_ROWS.join("\n") + "\n", buf.toString())
+    }
+
+    void testLargeValues() {
+        final List<Object> row = ["Dee", 4L, new BigDecimal("999999999999999999"),
+                new BigDecimal("-9999999999999999999999999"), new BigDecimal("92233720368547758.07"), true,
+                null, null, null, null]
+        final JsonObject jsonObject = new JsonObject()
+        jsonObject.addElement(new JsonResultSetWriter(createResultSet([row])).createArrayElement("rows"))
+        final String json = jsonObject.printCompact()
+
+        assertEquals("{\"rows\":[{\"name\":\"Dee\",\"id\":4,\"amount\":999999999999999999," +
+                "\"total\":\"-9999999999999999999999999\",\"price\":\"92233720368547758.07\",\"active\":true," +
+                "\"day\":null,\"time\":null,\"at\":null}]}", json)
+        // the NUMERIC(25,0) value can be read back by the parser
+        assertEquals(json, JsonParser.parse(json).printCompact())
+    }
+
+    void testElement() {
+        final JsonObject jsonObject = new JsonObject()
+        jsonObject.addElement(new JsonResultSetWriter(createResultSet(ROWS)).createArrayElement("rows"))
+
+        assertEquals("{\"rows\":[" + EXPECTED_ROWS.join(",") + "]}", jsonObject.printCompact())
+    }
+
+    void testCbor() {
+        final JsonObject jsonObject = new JsonObject()
+        jsonObject.addElement(new JsonResultSetWriter(createResultSet(ROWS)).createArrayElement("rows"))
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+        final JsonCborOutput out = new JsonCborOutput(bytes)
+        out.write(jsonObject)
+        out.flush()
+
+        final JsonCborReader reader = new JsonCborReader(new ByteArrayInputStream(bytes.toByteArray()))
+        assertEquals("{\"rows\":[" + EXPECTED_ROWS.join(",") + "]}", reader.readObject().printCompact())
+    }
+}
@@ -0,0 +1,83 @@
+package test.org.dbbeans.util.json
+
+import org.dbbeans.util.json.JsonFormat
+import org.dbbeans.util.json.JsonObject
+import org.dbbeans.util.json.JsonStringElement
+import org.dbbeans.util.json.JsonUtf8Output
+
+import java.nio.ByteBuffer
+
+class TestJsonUtf8Output extends GroovyTestCase {
+
+    private static List<Byte> encode(final String text, final int bufferSize) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+        final JsonUtf8Output output = new JsonUtf8Output(bytes, bufferSize)
+        output.append(text)
+        output.flush()
+        return bytes.toByteArray().toList()
+    }
+
+    private static List<Byte> utf8(final String text) {
+        return text.getBytes("UTF-8").toList()
+    }
+
+    void testSurrogatePairs() {
+        final String text = "aé€😀z"
+        assertEquals(utf8(text), encode(text, 32))
+    }
+
+    void testLoneSurrogates() {
+        assertEquals(utf8("a?b?c"), encode("a\ude00b\ud83dc", 32))
+    }
+
+    void testPendingHighSurrogateOnFlush() {
+        assertEquals(utf8("ab?"), encode("ab\ud83d", 32))
+    }
+
+    void testPairSplitAcrossBufferBoundary() {
+        final StringBuilder buf = new StringBuilder()
+        for (int i = 0; i < 31; i++)
+            buf.append('x')
+        buf.append("😀é")
+        final String text = buf.toString()
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+        final JsonUtf8Output output = new JsonUtf8Output(bytes, 32)
+        for (int i = 0; i < text.length(); i++)
+            output.append(text.charAt(i))
+        output.flush()
+
+        assertEquals(utf8(text), bytes.toByteArray().toList())
+    }
+
+    void testAppendLong() {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+        final JsonUtf8Output output = new JsonUtf8Output(bytes, 32)
+        output.appendLong(Long.MIN_VALUE).append(' ' as char).appendLong(Long.MAX_VALUE).append(' ' as char).appendLong(0)
+        output.flush()
+        assertEquals("-9223372036854775808 9223372036854775807 0", bytes.toString("UTF-8"))
+    }
+
+    void testByteBuffer() {
+        final JsonObject document = new JsonObject()
+        document.addElement(new JsonStringElement("text", "café 😀"))
+
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(256)
+        document.writeUtf8To(byteBuffer, JsonFormat.COMPACT)
+        byteBuffer.flip()
+        final byte[] written = new byte[byteBuffer.remaining()]
+        byteBuffer.get(written)
+
+        assertEquals(utf8(document.printCompact()), written.toList())
+    }
+
+    void testPrintStream() {
+        final JsonObject document = new JsonObject()
+        document.addElement(new JsonStringElement("a", "b"))
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+        final PrintStream printStream = new PrintStream(bytes, true, "UTF-8")
+        document.writeTo(printStream, JsonFormat.COMPACT)
+        printStream.flush()
+        assertEquals("{\"a\":\"b\"}", bytes.toString("UTF-8"))
+    }
+}
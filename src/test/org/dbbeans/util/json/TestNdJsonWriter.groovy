@@ -0,0 +1,100 @@
+package test.org.dbbeans.util.json
+
+import org.dbbeans.util.json.JsonElement
+import org.dbbeans.util.json.JsonIntegerElement
+import org.dbbeans.util.json.JsonObject
+import org.dbbeans.util.json.JsonObjectElement
+import org.dbbeans.util.json.JsonStringElement
+import org.dbbeans.util.json.NdJsonWriter
+
+class TestNdJsonWriter extends GroovyTestCase {
+
+    private static JsonObject record(final int id) {
+        final JsonObject inner = new JsonObject()
+        inner.addElement(new JsonStringElement("label", "record " + id))
+
+        final JsonObject jsonObject = new JsonObject()
+        jsonObject.addElement(new JsonIntegerElement("id", id))
+        jsonObject.addElement(new JsonObjectElement("inner", inner))
+        return jsonObject
+    }
+
+    void testLineFraming() {
+        final StringWriter writer = new StringWriter()
+        final NdJsonWriter ndJsonWriter = new NdJsonWriter(writer)
+        assertEquals(3L, ndJsonWriter.write([record(1), record(2), record(3)]))
+        ndJsonWriter.close()
+
+        final String[] lines = writer.toString().split("\n", -1)
+        assertEquals(4, lines.length)
+        assertEquals("", lines[3])
+        for (int i = 0; i < 3; i++)
+            assertEquals(record(i + 1).printCompact(), lines[i])
+        assertEquals(3L, ndJsonWriter.getCount())
+    }
+
+    void testCompactRecords() {
+        final StringWriter writer = new StringWriter()
+        final NdJsonWriter ndJsonWriter = new NdJsonWriter(writer)
+        ndJsonWriter.write(record(1))
+        ndJsonWriter.flush()
+
+        assertEquals("{\"id\":1,\"inner\":{\"label\":\"record 1\"}}\n", writer.toString())
+    }
+
+    void testFlushInterval() {
+        final StringWriter writer = new StringWriter()
+        final NdJsonWriter ndJsonWriter = new NdJsonWriter(writer, 3)
+
+        ndJsonWriter.write(record(1))
+        ndJsonWriter.write(record(2))
+        assertEquals("", writer.toString())
+
+        ndJsonWriter.write(record(3))
+        assertEquals(3, writer.toString().split("\n").length)
+
+        ndJsonWriter.write(record(4))
+        assertEquals(3, writer.toString().split("\n").length)
+
+        ndJsonWriter.flush()
+        assertEquals(4, writer.toString().split("\n").length)
+    }
+
+    void testNoFlushInterval() {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+        final NdJsonWriter ndJsonWriter = new NdJsonWriter(bytes, 0)
+        for (int i = 0; i < 10; i++)
+            ndJsonWriter.write(record(i))
+        assertEquals(0, bytes.size())
+
+        ndJsonWriter.close()
+        assertEquals(10, bytes.toString("UTF-8").split("\n").length)
+    }
+
+    void testNegativeFlushInterval() {
+        shouldFail(IllegalArgumentException) { new NdJsonWriter(new StringWriter(), -1) }
+    }
+
+    void testPrintOnlyElements() {
+        final JsonObject jsonObject = record(1)
+        jsonObject.addElement(new JsonElement("legacy") {
+            @Override
+            String print(final int indentLevel, final boolean isLast) {
+                final String tabs = getTabs(indentLevel)
+                return tabs + "\"legacy\" : [\n" + tabs + "\t\"a b\",\n" + tabs + "\t2\n" + tabs + "]" +
+                        (isLast ? "" : ",") + "\n"
+            }
+        })
+
+        final StringWriter writer = new StringWriter()
+        final NdJsonWriter ndJsonWriter = new NdJsonWriter(writer)
+        ndJsonWriter.write(jsonObject)
+        ndJsonWriter.write(record(2))
+        ndJsonWriter.close()
+
+        final String[] lines = writer.toString().split("\n")
+        assertEquals(2, lines.length)
+        assertEquals("{\"id\":1,\"inner\":{\"label\":\"record 1\"},\"legacy\" : [\"a b\",2]}", lines[0])
+        assertEquals(record(2).printCompact(), lines[1])
+    }
+}